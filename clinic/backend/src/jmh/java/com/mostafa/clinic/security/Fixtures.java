@@ -0,0 +1,31 @@
+package com.mostafa.clinic.security;
+
+import com.mostafa.clinic.entity.Role;
+import com.mostafa.clinic.entity.User;
+import com.mostafa.clinic.service.CacheRegistry;
+
+import java.time.Duration;
+
+/** Shared setup for the security benchmarks; values match application.yml. */
+final class Fixtures {
+
+    static final String SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+    static final long EXPIRATION_MS = 86_400_000L;
+
+    private Fixtures() {}
+
+    /** A JwtService whose verification cache holds entries for {@code cacheTtl}; zero disables it. */
+    static JwtService jwtService(Duration cacheTtl) {
+        return new JwtService(SECRET, EXPIRATION_MS, 10_000, cacheTtl, new CacheRegistry());
+    }
+
+    static User patient() {
+        return User.builder()
+                .id(42L)
+                .firstName("Sara")
+                .lastName("Hassan")
+                .email("sara.hassan@example.com")
+                .role(Role.PATIENT)
+                .build();
+    }
+}
@@ -0,0 +1,56 @@
+package com.mostafa.clinic.security;
+
+import com.mostafa.clinic.service.CacheRegistry;
+import com.mostafa.clinic.service.DoctorEvents;
+import com.mostafa.clinic.service.PrincipalCache;
+import com.mostafa.clinic.service.TokenRevocationRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole bearer-token path of one request through JwtAuthFilter, with a no-op chain: header
+ * check, cached verification, revocation check and building the principal from claims.
+ * Repositories are not needed on this path and are left null.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class JwtAuthFilterBenchmark {
+
+    private static final FilterChain NO_OP = (request, response) -> {};
+
+    private JwtAuthFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        JwtService jwtService = Fixtures.jwtService(Duration.ofMinutes(5));
+        PrincipalCache principalCache = new PrincipalCache(null, new DoctorEvents(), new CacheRegistry(),
+                Runnable::run, Duration.ofSeconds(60), 10_000);
+        TokenRevocationRegistry revocations = new TokenRevocationRegistry(null, Fixtures.EXPIRATION_MS);
+        filter = new JwtAuthFilter(jwtService, principalCache, revocations, new SimpleMeterRegistry());
+
+        request = new MockHttpServletRequest("GET", "/api/appointments/my");
+        request.addHeader("Authorization", "Bearer " + jwtService.generateToken(Fixtures.patient()));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        filter.doFilter(request, response, NO_OP);
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
@@ -0,0 +1,45 @@
+package com.mostafa.clinic.security;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issue and verification. {@code verifyCached} is the steady state of a client reusing its
+ * token; {@code verifyUncached} is the full parse and HMAC check every first request pays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private JwtService cached;
+    private JwtService uncached;
+    private String token;
+
+    @Setup
+    public void setup() {
+        cached = Fixtures.jwtService(Duration.ofMinutes(5));
+        uncached = Fixtures.jwtService(Duration.ZERO);
+        token = cached.generateToken(Fixtures.patient());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return cached.generateToken(Fixtures.patient());
+    }
+
+    @Benchmark
+    public VerifiedToken verifyCached() {
+        return cached.verify(token);
+    }
+
+    @Benchmark
+    public VerifiedToken verifyUncached() {
+        return uncached.verify(token);
+    }
+}
@@ -0,0 +1,48 @@
+package com.mostafa.clinic.security;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One BCrypt verification per login at the configured strength (10) and the next step up, both
+ * directly and through PasswordHasher to show what the bounded pool adds per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordBenchmark {
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private PasswordHasher hasher;
+    private String hash;
+
+    @Setup
+    public void setup() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hasher = new PasswordHasher(encoder, 0, 64, 30_000);
+        hash = encoder.encode("patient123");
+    }
+
+    @TearDown
+    public void tearDown() {
+        hasher.shutdown();
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("patient123", hash);
+    }
+
+    @Benchmark
+    public boolean hasherVerify() {
+        return hasher.verify("patient123", hash).matches();
+    }
+}
@@ -0,0 +1,54 @@
+package com.mostafa.clinic.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overlap checks against one doctor's day, the check every booking and free-slot query makes.
+ * The day holds back-to-back 30 minute appointments with a gap left in the middle.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BookingLedgerBenchmark {
+
+    @Param({"16", "48"})
+    public int booked;
+
+    private BookingLedger.DayLedger day;
+    private int gap;
+
+    @Setup
+    public void setup() {
+        day = new BookingLedger.DayLedger();
+        int start = 0;
+        gap = (booked / 2) * 30;
+        for (int i = 0; i <= booked; i++) {
+            if (i * 30 != gap) {
+                day.put(i, start, start + 30);
+            }
+            start += 30;
+        }
+    }
+
+    @Benchmark
+    public boolean isFreeHit() {
+        return day.isFree(gap, gap + 30);
+    }
+
+    @Benchmark
+    public boolean isFreeMiss() {
+        return day.isFree(gap + 15, gap + 45);
+    }
+
+    @Benchmark
+    public boolean moveAppointment() {
+        // re-put of an existing id moves it: remove plus sorted insert
+        day.put(1, 30, 60);
+        return day.put(1, 31, 61);
+    }
+}
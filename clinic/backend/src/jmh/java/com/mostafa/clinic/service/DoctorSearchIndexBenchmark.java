@@ -0,0 +1,54 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.dto.response.DoctorResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Doctor search over a synthetic directory: exact, prefix and misspelled queries. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DoctorSearchIndexBenchmark {
+
+    private static final String[] FIRST = {"Omar", "Sara", "Mona", "Ahmed", "Youssef", "Nour", "Karim", "Laila"};
+    private static final String[] LAST = {"Nabil", "Hassan", "Fathy", "Mostafa", "Salem", "Adel", "Farouk"};
+    private static final String[] SPECIALTY = {"Cardiology", "Dermatology", "Pediatrics", "Neurology",
+            "Orthopedics", "Ophthalmology", "Psychiatry", "Gastroenterology"};
+
+    @Param({"200", "2000"})
+    public int doctors;
+
+    private DoctorSearchIndex index;
+
+    @Setup
+    public void setup() {
+        index = new DoctorSearchIndex(null, new DoctorEvents(), null);
+        for (int i = 0; i < doctors; i++) {
+            String specialty = SPECIALTY[i % SPECIALTY.length];
+            index.onDoctorChange(new DoctorChange((long) i, FIRST[i % FIRST.length], LAST[(i / 3) % LAST.length],
+                    "doctor" + i + "@example.com", null, specialty, specialty + " consultant", i % 30,
+                    BigDecimal.valueOf(200 + i % 300), "MONDAY,TUESDAY", "09:00-17:00", i % 4 != 0, true));
+        }
+    }
+
+    @Benchmark
+    public List<DoctorResponse> exact() {
+        return index.search("cardiology", null, 20);
+    }
+
+    @Benchmark
+    public List<DoctorResponse> prefix() {
+        return index.search("derm sar", null, 20);
+    }
+
+    @Benchmark
+    public List<DoctorResponse> misspelled() {
+        return index.search("nuerology hasan", null, 20);
+    }
+}
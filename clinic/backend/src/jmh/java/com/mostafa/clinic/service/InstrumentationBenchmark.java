@@ -0,0 +1,59 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.entity.AppointmentStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the metrics added to hot paths cost per call: a histogram timer as used by @Timed and the
+ * auth filter, a pre-registered counter, and a counter looked up by tags on each call as the
+ * business error counter does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+
+    private MeterRegistry registry;
+    private Timer timer;
+    private Counter counter;
+
+    @Setup
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        timer = Timer.builder("bench.timer").publishPercentileHistogram().register(registry);
+        counter = Counter.builder("bench.counter").tag("to", AppointmentStatus.CONFIRMED.name()).register(registry);
+    }
+
+    @Benchmark
+    public void baseline(Blackhole bh) {
+        bh.consume(System.nanoTime());
+    }
+
+    @Benchmark
+    public void histogramTimer(Blackhole bh) {
+        long start = System.nanoTime();
+        bh.consume(start);
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    @Benchmark
+    public void registeredCounter() {
+        counter.increment();
+    }
+
+    @Benchmark
+    public void taggedCounterLookup() {
+        registry.counter(ClinicMetrics.BUSINESS_ERRORS, "type", "BusinessException",
+                "reason", ClinicMetrics.reason("Appointment #1042 is not PENDING")).increment();
+    }
+}
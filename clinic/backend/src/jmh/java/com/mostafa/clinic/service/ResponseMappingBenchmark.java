@@ -0,0 +1,98 @@
+package com.mostafa.clinic.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.mostafa.clinic.dto.response.AppointmentResponse;
+import com.mostafa.clinic.dto.response.DoctorResponse;
+import com.mostafa.clinic.entity.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping for single appointments and doctors, and JSON serialization of
+ * appointment lists the size of a typical "my appointments" response and a large one.
+ * The mappers read no service state, so the services are built without collaborators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseMappingBenchmark {
+
+    @Param({"20", "500"})
+    public int listSize;
+
+    private AppointmentService appointmentService;
+    private DoctorService doctorService;
+    private ObjectMapper objectMapper;
+    private Appointment appointment;
+    private User doctor;
+    private List<AppointmentResponse> responses;
+
+    @Setup
+    public void setup() {
+        appointmentService = new AppointmentService(null, null, null, null, null, null, null, null, null);
+        doctorService = new DoctorService(null, null, null, null);
+        // configured like Spring Boot's auto-configured mapper
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        DoctorProfile profile = DoctorProfile.builder()
+                .id(7L)
+                .specialty("Cardiology")
+                .bio("Interventional cardiologist with 12 years of experience")
+                .experienceYears(12)
+                .consultationFee(new BigDecimal("450.00"))
+                .workingDays("MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY")
+                .workingHours("09:00-17:00")
+                .build();
+        doctor = User.builder().id(7L).firstName("Omar").lastName("Nabil").email("omar.nabil@example.com")
+                .phone("+201000000007").role(Role.DOCTOR).doctorProfile(profile).build();
+        User patient = User.builder().id(42L).firstName("Sara").lastName("Hassan")
+                .email("sara.hassan@example.com").role(Role.PATIENT).build();
+        appointment = Appointment.builder()
+                .id(1001L)
+                .patient(patient)
+                .doctor(doctor)
+                .appointmentDate(LocalDate.of(2026, 3, 2))
+                .appointmentTime(LocalTime.of(10, 30))
+                .status(AppointmentStatus.CONFIRMED)
+                .patientNotes("Follow-up after blood tests")
+                .createdAt(LocalDateTime.of(2026, 2, 20, 14, 5))
+                .build();
+
+        responses = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            AppointmentResponse r = appointmentService.mapToResponse(appointment);
+            r.setId(1001L + i);
+            responses.add(r);
+        }
+    }
+
+    @Benchmark
+    public AppointmentResponse mapAppointment() {
+        return appointmentService.mapToResponse(appointment);
+    }
+
+    @Benchmark
+    public DoctorResponse mapDoctor() {
+        return doctorService.mapToResponse(doctor);
+    }
+
+    @Benchmark
+    public byte[] serializeAppointmentList() throws Exception {
+        return objectMapper.writeValueAsBytes(responses);
+    }
+}
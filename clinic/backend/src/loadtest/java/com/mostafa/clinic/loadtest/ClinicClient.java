@@ -0,0 +1,130 @@
+package com.mostafa.clinic.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Thin JSON client for the clinic API that times every call and files it under an endpoint label
+ * (the route template, not the concrete URI, so ids do not split the statistics).
+ */
+final class ClinicClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private volatile ConcurrentMap<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    ClinicClient(int port, ObjectMapper objectMapper) {
+        // the client keeps its default executor: the session executor is shut down to drain the
+        // last sessions, and the client's own tasks must keep running until they have finished
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = "http://127.0.0.1:" + port;
+        this.objectMapper = objectMapper;
+    }
+
+    Response get(String endpoint, String path, String token) {
+        return send(endpoint, "GET", path, token, null, null, false);
+    }
+
+    /** A conditional GET; a 304 counts as success and carries no body. */
+    Response get(String endpoint, String path, String token, String etag) {
+        return send(endpoint, "GET", path, token, null, etag, false);
+    }
+
+    Response post(String endpoint, String path, String token, Object body, boolean raceable) {
+        return send(endpoint, "POST", path, token, body, null, raceable);
+    }
+
+    Response put(String endpoint, String path, String token, boolean raceable) {
+        return send(endpoint, "PUT", path, token, null, null, raceable);
+    }
+
+    /** Drops everything recorded so far, e.g. at the end of the warmup. */
+    void reset() {
+        stats = new ConcurrentHashMap<>();
+    }
+
+    Map<String, EndpointStats> snapshot() {
+        return new TreeMap<>(stats);
+    }
+
+    /**
+     * Sends one request. With {@code raceable}, a 400 or 409 is a lost race against another
+     * session (slot taken, appointment already confirmed) and counts as a conflict, not a failure.
+     */
+    private Response send(String endpoint, String method, String path, String token, Object body,
+                          String etag, boolean raceable) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", "application/json");
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        if (etag != null) {
+            request.header("If-None-Match", etag);
+        }
+        try {
+            if (body != null) {
+                request.header("Content-Type", "application/json")
+                        .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } else {
+                request.method(method, HttpRequest.BodyPublishers.noBody());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize request body for " + endpoint, e);
+        }
+
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, k -> new EndpointStats());
+        long started = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            long micros = (System.nanoTime() - started) / 1000;
+            int status = response.statusCode();
+            endpointStats.record(micros, outcome(status, raceable));
+            JsonNode json = response.body().length == 0 ? MissingNode.getInstance() : objectMapper.readTree(response.body());
+            return new Response(status, json, response.headers().firstValue("ETag").orElse(null));
+        } catch (IOException e) {
+            endpointStats.record((System.nanoTime() - started) / 1000, EndpointStats.Outcome.ERROR);
+            return new Response(-1, MissingNode.getInstance(), null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(-1, MissingNode.getInstance(), null);
+        }
+    }
+
+    private static EndpointStats.Outcome outcome(int status, boolean raceable) {
+        if ((status >= 200 && status < 300) || status == 304) {
+            return EndpointStats.Outcome.OK;
+        }
+        if (status == 409 || (raceable && status == 400)) {
+            return EndpointStats.Outcome.CONFLICT;
+        }
+        if (status == 503) {
+            return EndpointStats.Outcome.REJECTED;
+        }
+        return EndpointStats.Outcome.ERROR;
+    }
+
+    record Response(int status, JsonNode body, String etag) {
+        boolean ok() {
+            return status >= 200 && status < 300;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.mostafa.clinic.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Latency histogram and outcome counts for one endpoint, safe to record from many threads. */
+final class EndpointStats {
+
+    /** Latencies are recorded in microseconds up to one minute, to three significant digits. */
+    private final Histogram latencies = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    enum Outcome { OK, CONFLICT, REJECTED, ERROR }
+
+    void record(long micros, Outcome outcome) {
+        latencies.recordValue(Math.min(micros, latencies.getHighestTrackableValue()));
+        switch (outcome) {
+            case OK -> ok.increment();
+            case CONFLICT -> conflicts.increment();
+            case REJECTED -> rejected.increment();
+            case ERROR -> errors.increment();
+        }
+    }
+
+    Summary summarize(String endpoint, double seconds) {
+        long count = latencies.getTotalCount();
+        return new Summary(endpoint, count, count / seconds,
+                ms(latencies.getValueAtPercentile(50)), ms(latencies.getValueAtPercentile(90)),
+                ms(latencies.getValueAtPercentile(99)), ms(latencies.getValueAtPercentile(99.9)),
+                ms(latencies.getMaxValue()),
+                ok.sum(), conflicts.sum(), rejected.sum(), errors.sum(),
+                count == 0 ? 0 : (double) errors.sum() / count,
+                count == 0 ? 0 : (double) conflicts.sum() / count);
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+
+    record Summary(String endpoint, long requests, double perSecond,
+                   double p50Ms, double p90Ms, double p99Ms, double p999Ms, double maxMs,
+                   long ok, long conflicts, long rejected, long errors,
+                   double errorRate, double conflictRate) {}
+}
@@ -0,0 +1,40 @@
+package com.mostafa.clinic.loadtest;
+
+import java.time.Duration;
+
+/**
+ * Load test settings, read from system properties ({@code -Dloadtest.rate=50} etc.).
+ *
+ * @param mode           "open": sessions arrive at {@code rate} per second whatever the response
+ *                       times; "closed": {@code concurrency} users each run sessions back to back
+ * @param rate           session arrivals per second in open mode
+ * @param concurrency    users in closed mode
+ * @param maxSessions    open mode cap on sessions in flight; arrivals beyond it are counted as dropped
+ * @param doctors        doctors registered before the run, open every day 08:00-20:00
+ * @param warmup         run time excluded from the report
+ * @param duration       measured run time
+ * @param maxErrorRate   gate: highest allowed share of failed requests (5xx, timeouts, unexpected 4xx)
+ * @param maxP99Millis   gate: highest allowed p99 of any endpoint; 0 disables it
+ * @param report         where the JSON report is written
+ */
+record LoadConfig(String mode, double rate, int concurrency, int maxSessions, int doctors,
+                  Duration warmup, Duration duration, double maxErrorRate, long maxP99Millis, String report) {
+
+    static LoadConfig fromSystemProperties() {
+        return new LoadConfig(
+                System.getProperty("loadtest.mode", "open"),
+                Double.parseDouble(System.getProperty("loadtest.rate", "20")),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Integer.getInteger("loadtest.max-sessions", 1000),
+                Integer.getInteger("loadtest.doctors", 20),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 10)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60)),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01")),
+                Long.getLong("loadtest.max-p99-ms", 0),
+                System.getProperty("loadtest.report", "target/loadtest-report.json"));
+    }
+
+    boolean isOpen() {
+        return !"closed".equalsIgnoreCase(mode);
+    }
+}
@@ -0,0 +1,205 @@
+package com.mostafa.clinic.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mostafa.clinic.ClinicApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-to-end load generator. Boots the application on a random local port against the default
+ * in-memory H2 database, registers its own doctors, drives {@link Scenarios} in an open or closed
+ * model, then prints per-endpoint throughput and latency percentiles and writes them as JSON.
+ * Throws when a gate in {@link LoadConfig} is exceeded, which fails the Maven build it runs in.
+ *
+ * <pre>mvn -Ploadtest verify -Dloadtest.rate=50 -Dloadtest.duration-seconds=120</pre>
+ */
+public final class LoadTest {
+
+    private final LoadConfig config;
+    private final ClinicClient client;
+    private final Scenarios scenarios;
+    private final ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private LoadTest(LoadConfig config, int port, ObjectMapper objectMapper) {
+        this.config = config;
+        this.client = new ClinicClient(port, objectMapper);
+        this.scenarios = new Scenarios(client);
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadConfig config = LoadConfig.fromSystemProperties();
+        // the restart classloader would reload the app under our feet
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // command-line arguments, so they win over application.yml (builder properties would not)
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ClinicApplication.class)
+                .run(withArgs(args,
+                        "--server.port=0",
+                        "--management.server.port=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.com.mostafa.clinic=WARN",
+                        "--logging.level.org.springframework.security=WARN",
+                        "--logging.level.org.springframework.web=WARN"));
+        boolean passed;
+        try {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            passed = new LoadTest(config, port, objectMapper).run(objectMapper);
+        } finally {
+            context.close();
+        }
+        if (!passed) {
+            throw new IllegalStateException("Load test gates failed, see the report above");
+        }
+    }
+
+    private boolean run(ObjectMapper objectMapper) throws Exception {
+        scenarios.setUp(config.doctors());
+        System.out.printf("Load test: %s model, %s, warmup %ds, measuring %ds%n", config.isOpen() ? "open" : "closed",
+                config.isOpen() ? config.rate() + " sessions/s" : config.concurrency() + " users",
+                config.warmup().toSeconds(), config.duration().toSeconds());
+
+        long warmupEnd = System.nanoTime() + config.warmup().toNanos();
+        long end = warmupEnd + config.duration().toNanos();
+        Runnable stop = config.isOpen() ? startOpen(end) : startClosed(end);
+
+        sleepUntil(warmupEnd);
+        client.reset();
+        completed.reset();
+        dropped.reset();
+        long measuredFrom = System.nanoTime();
+        sleepUntil(end);
+        stop.run();
+        sessions.shutdown();
+        sessions.awaitTermination(30, TimeUnit.SECONDS);
+        // sessions still running at the end are drained and their requests counted, so is their time
+        double seconds = (System.nanoTime() - measuredFrom) / 1e9;
+        return report(seconds, objectMapper);
+    }
+
+    /** Starts sessions at a fixed rate whatever the response times, capped at maxSessions in flight. */
+    private Runnable startOpen(long end) {
+        Semaphore inFlight = new Semaphore(config.maxSessions());
+        ScheduledExecutorService arrivals = Executors.newSingleThreadScheduledExecutor();
+        long periodNanos = Math.max(1, (long) (1e9 / config.rate()));
+        arrivals.scheduleAtFixedRate(() -> {
+            if (System.nanoTime() >= end) {
+                return;
+            }
+            if (!inFlight.tryAcquire()) {
+                dropped.increment();
+                return;
+            }
+            sessions.execute(() -> {
+                try {
+                    scenarios.runSession();
+                    completed.increment();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }, 0, periodNanos, TimeUnit.NANOSECONDS);
+        return arrivals::shutdownNow;
+    }
+
+    /** Runs {@code concurrency} users, each starting its next session as soon as one finishes. */
+    private Runnable startClosed(long end) {
+        for (int i = 0; i < config.concurrency(); i++) {
+            sessions.execute(() -> {
+                while (System.nanoTime() < end) {
+                    scenarios.runSession();
+                    completed.increment();
+                }
+            });
+        }
+        return () -> {};
+    }
+
+    /** Prints and writes the report; returns false if any gate failed. */
+    private boolean report(double seconds, ObjectMapper objectMapper) throws Exception {
+        List<EndpointStats.Summary> endpoints = new ArrayList<>();
+        long requests = 0;
+        long errors = 0;
+        double worstP99 = 0;
+        for (Map.Entry<String, EndpointStats> e : client.snapshot().entrySet()) {
+            EndpointStats.Summary summary = e.getValue().summarize(e.getKey(), seconds);
+            endpoints.add(summary);
+            requests += summary.requests();
+            errors += summary.errors();
+            worstP99 = Math.max(worstP99, summary.p99Ms());
+        }
+        double errorRate = requests == 0 ? 0 : (double) errors / requests;
+        long bookings = endpoints.stream().filter(s -> s.endpoint().equals("POST /api/appointments/book"))
+                .mapToLong(EndpointStats.Summary::ok).sum();
+
+        System.out.printf("%n%-36s %9s %9s %9s %9s %9s %9s %9s %8s %8s%n", "endpoint", "requests", "req/s",
+                "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "conflict");
+        for (EndpointStats.Summary s : endpoints) {
+            System.out.printf("%-36s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f %7.2f%% %7.2f%%%n", s.endpoint(),
+                    s.requests(), s.perSecond(), s.p50Ms(), s.p90Ms(), s.p99Ms(), s.p999Ms(), s.maxMs(),
+                    s.errorRate() * 100, s.conflictRate() * 100);
+        }
+        System.out.printf("%nsessions: %.1f/s completed, %d dropped; bookings: %.1f/s; requests: %.1f/s; errors: %.2f%%%n",
+                completed.sum() / seconds, dropped.sum(), bookings / seconds, requests / seconds, errorRate * 100);
+
+        List<String> failures = new ArrayList<>();
+        if (requests == 0) {
+            failures.add("no requests were measured");
+        }
+        if (errorRate > config.maxErrorRate()) {
+            failures.add(String.format("error rate %.2f%% exceeds %.2f%%", errorRate * 100, config.maxErrorRate() * 100));
+        }
+        if (config.maxP99Millis() > 0 && worstP99 > config.maxP99Millis()) {
+            failures.add(String.format("p99 %.1f ms exceeds %d ms", worstP99, config.maxP99Millis()));
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("finishedAt", Instant.now().toString());
+        json.put("config", config);
+        json.put("measuredSeconds", seconds);
+        json.put("sessionsPerSecond", completed.sum() / seconds);
+        json.put("droppedSessions", dropped.sum());
+        json.put("bookingsPerSecond", bookings / seconds);
+        json.put("requestsPerSecond", requests / seconds);
+        json.put("errorRate", errorRate);
+        json.put("endpoints", endpoints);
+        json.put("failures", failures);
+        File file = new File(config.report());
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, json);
+        System.out.println("report: " + file.getAbsolutePath());
+
+        failures.forEach(f -> System.out.println("GATE FAILED: " + f));
+        return failures.isEmpty();
+    }
+
+    /** The given arguments after ours, so a caller can still override any of them. */
+    private static String[] withArgs(String[] args, String... defaults) {
+        String[] all = Arrays.copyOf(defaults, defaults.length + args.length);
+        System.arraycopy(args, 0, all, defaults.length, args.length);
+        return all;
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.mostafa.clinic.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The user journeys the generator runs. Four in five sessions are patients: sign up or log in,
+ * browse and search doctors, look at a doctor's free slots, book one, poll their appointments
+ * (the second poll is conditional and normally answered 304) and sometimes cancel. The rest are
+ * doctors logging in to confirm what is pending.
+ */
+final class Scenarios {
+
+    private static final String PASSWORD = "loadtest123";
+    private static final String[] SPECIALTIES = {"Cardiology", "Dermatology", "Pediatrics", "Neurology", "Orthopedics"};
+    private static final double NEW_PATIENT_SHARE = 0.3;
+    private static final double CANCEL_SHARE = 0.25;
+    private static final double DOCTOR_SESSION_SHARE = 0.2;
+    private static final int SLOT_CHOICES = 20;
+
+    private final ClinicClient client;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<String> patients = new ConcurrentLinkedQueue<>();
+    private final List<String> doctorEmails = new ArrayList<>();
+    private final List<Long> doctorIds = new ArrayList<>();
+
+    Scenarios(ClinicClient client) {
+        this.client = client;
+    }
+
+    /** Registers the doctors every session books with; they work every day so any date has slots. */
+    void setUp(int doctors) {
+        for (int i = 0; i < doctors; i++) {
+            String email = "lt-doctor-" + i + "-" + runId + "@loadtest.local";
+            Map<String, Object> body = registration(email, "DOCTOR");
+            body.put("specialty", SPECIALTIES[i % SPECIALTIES.length]);
+            body.put("consultationFee", 300.0);
+            body.put("workingDays", "MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY,SATURDAY,SUNDAY");
+            body.put("workingHours", "08:00-20:00");
+            ClinicClient.Response response = client.post("POST /api/auth/register", "/api/auth/register", null, body, false);
+            if (!response.ok()) {
+                throw new IllegalStateException("Could not register load test doctor " + email + ": " + response.status());
+            }
+            doctorEmails.add(email);
+            doctorIds.add(response.body().path("id").asLong());
+        }
+    }
+
+    void runSession() {
+        if (ThreadLocalRandom.current().nextDouble() < DOCTOR_SESSION_SHARE) {
+            doctorSession();
+        } else {
+            patientSession();
+        }
+    }
+
+    private void patientSession() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String email = random.nextDouble() < NEW_PATIENT_SHARE ? null : patients.poll();
+        boolean existing = email != null;
+        String token;
+        if (existing) {
+            token = login(email);
+        } else {
+            email = "lt-patient-" + sequence.incrementAndGet() + "-" + runId + "@loadtest.local";
+            token = token(client.post("POST /api/auth/register", "/api/auth/register", null,
+                    registration(email, "PATIENT"), false));
+        }
+        if (token == null) {
+            if (existing) {
+                patients.offer(email);
+            }
+            return;
+        }
+        try {
+            client.get("GET /api/doctors", "/api/doctors", token);
+            String specialty = SPECIALTIES[random.nextInt(SPECIALTIES.length)];
+            client.get("GET /api/doctors/search", "/api/doctors/search?q=" + specialty.substring(0, 4).toLowerCase(), token);
+
+            Long doctorId = doctorIds.get(random.nextInt(doctorIds.size()));
+            LocalDate from = LocalDate.now().plusDays(1);
+            JsonNode slots = client.get("GET /api/doctors/{id}/slots",
+                    "/api/doctors/" + doctorId + "/slots?from=" + from + "&to=" + from.plusDays(6), token).body();
+
+            Long booked = null;
+            if (slots.isArray() && !slots.isEmpty()) {
+                JsonNode slot = slots.get(random.nextInt(Math.min(SLOT_CHOICES, slots.size())));
+                Map<String, Object> request = new LinkedHashMap<>();
+                request.put("doctorId", doctorId);
+                request.put("appointmentDate", slot.path("date").asText());
+                request.put("appointmentTime", slot.path("startTime").asText());
+                request.put("patientNotes", "Load test booking");
+                ClinicClient.Response response = client.post("POST /api/appointments/book",
+                        "/api/appointments/book", token, request, true);
+                if (response.ok()) {
+                    booked = response.body().path("id").asLong();
+                }
+            }
+
+            ClinicClient.Response mine = client.get("GET /api/appointments/my", "/api/appointments/my", token);
+            client.get("GET /api/appointments/my", "/api/appointments/my", token, mine.etag());
+
+            if (booked != null && random.nextDouble() < CANCEL_SHARE) {
+                client.put("PUT /api/appointments/cancel/{id}", "/api/appointments/cancel/" + booked, token, true);
+            }
+        } finally {
+            patients.offer(email);
+        }
+    }
+
+    private void doctorSession() {
+        String token = login(doctorEmails.get(ThreadLocalRandom.current().nextInt(doctorEmails.size())));
+        if (token == null) {
+            return;
+        }
+        JsonNode mine = client.get("GET /api/appointments/my", "/api/appointments/my", token).body();
+        int confirmed = 0;
+        for (JsonNode appointment : mine) {
+            if (confirmed == 3) {
+                break;
+            }
+            if ("PENDING".equals(appointment.path("status").asText())) {
+                // another session for the same doctor may get there first
+                client.put("PUT /api/appointments/confirm/{id}",
+                        "/api/appointments/confirm/" + appointment.path("id").asLong(), token, true);
+                confirmed++;
+            }
+        }
+    }
+
+    private String login(String email) {
+        return token(client.post("POST /api/auth/login", "/api/auth/login", null,
+                Map.of("email", email, "password", PASSWORD), false));
+    }
+
+    private static String token(ClinicClient.Response response) {
+        return response.ok() ? response.body().path("token").asText(null) : null;
+    }
+
+    private static Map<String, Object> registration(String email, String role) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("firstName", "Load");
+        body.put("lastName", "Test");
+        body.put("email", email);
+        body.put("password", PASSWORD);
+        body.put("phone", "+200000000000");
+        body.put("role", role);
+        return body;
+    }
+}
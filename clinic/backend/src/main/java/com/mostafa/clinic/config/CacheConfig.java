@@ -0,0 +1,30 @@
+package com.mostafa.clinic.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class CacheConfig {
+
+    /**
+     * Runs cache loads, which are single short queries. Kept apart from the task executor, where a
+     * few long exports would otherwise leave cache misses queued behind them.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService cacheLoadExecutor(@Value("${app.cache.load-threads:4}") int threads) {
+        AtomicInteger sequence = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                r -> {
+                    Thread t = new Thread(r, "cache-load-" + sequence.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+}
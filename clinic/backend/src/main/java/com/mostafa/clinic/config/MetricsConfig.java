@@ -0,0 +1,23 @@
+package com.mostafa.clinic.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /** Enables @Timed on Spring beans (AppointmentService, AuthService). */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    /** Business error reasons are derived from messages; stop adding series if they ever explode. */
+    @Bean
+    public MeterFilter businessErrorReasonLimit() {
+        return MeterFilter.maximumAllowableTags("clinic.business.errors", "reason", 200, MeterFilter.deny());
+    }
+}
@@ -2,8 +2,11 @@ package com.mostafa.clinic.config;
 
 import com.mostafa.clinic.repository.UserRepository;
 import com.mostafa.clinic.security.JwtAuthFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -32,31 +35,39 @@ import java.util.List;
 @EnableWebSecurity
 @EnableMethodSecurity
 @RequiredArgsConstructor
+@Slf4j
 public class SecurityConfig {
 
     private final ObjectProvider<JwtAuthFilter> jwtAuthFilterProvider;
     private final UserRepository userRepository;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider)
+            throws Exception {
         http
             .csrf(AbstractHttpConfigurer::disable)
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // streamed responses complete on an async dispatch of a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
+                // only reachable on the loopback management port
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/doctors/profile").hasRole("DOCTOR")
                 .requestMatchers(HttpMethod.GET, "/api/doctors/**").hasAnyRole("PATIENT", "DOCTOR", "ADMIN")
-                .requestMatchers("/api/appointments/book").hasRole("PATIENT")
+                .requestMatchers("/api/appointments/book", "/api/appointments/book/**").hasRole("PATIENT")
+                .requestMatchers("/api/appointments/waitlist", "/api/appointments/waitlist/**").hasRole("PATIENT")
                 .requestMatchers(HttpMethod.PUT, "/api/appointments/confirm/**").hasRole("DOCTOR")
                 .requestMatchers(HttpMethod.PUT, "/api/appointments/complete/**").hasRole("DOCTOR")
                 .requestMatchers(HttpMethod.PUT, "/api/appointments/reject/**").hasRole("DOCTOR")
                 .requestMatchers("/api/appointments/**").hasAnyRole("PATIENT", "DOCTOR", "ADMIN")
                 .anyRequest().authenticated()
             )
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             .addFilterBefore(jwtAuthFilterProvider.getIfAvailable(), UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
@@ -74,14 +85,17 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * Backs the AuthenticationManager only. The login endpoint checks passwords through
+     * PasswordHasher and tokens resolve from their claims, so no request path calls this.
+     */
     @Bean
     public UserDetailsService userDetailsService() {
         return username -> {
-            org.slf4j.Logger log = org.slf4j.LoggerFactory.getLogger(SecurityConfig.class);
-            log.info("🔍 Loading user details for username: {}", username);
+            log.debug("🔍 Loading user details for username: {}", username);
             var user = userRepository.findByEmail(username);
             if (user.isPresent()) {
-                log.info("✅ User found in database: {} with role: {}", username, user.get().getRole());
+                log.debug("✅ User found in database: {} with role: {}", username, user.get().getRole());
                 return user.get();
             } else {
                 log.warn("❌ User not found for username: {}", username);
@@ -91,10 +105,10 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService());
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         return provider;
     }
 
@@ -103,8 +117,9 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /** Raising the strength takes effect for existing users at their next login, which rehashes. */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
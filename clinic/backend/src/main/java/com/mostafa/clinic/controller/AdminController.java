@@ -1,18 +1,33 @@
 package com.mostafa.clinic.controller;
 
 import com.mostafa.clinic.dto.response.AdminStatsResponse;
+import com.mostafa.clinic.dto.response.AnalyticsPointResponse;
 import com.mostafa.clinic.dto.response.AppointmentResponse;
+import com.mostafa.clinic.dto.response.CacheStatsResponse;
+import com.mostafa.clinic.dto.response.CursorPage;
 import com.mostafa.clinic.dto.response.DoctorResponse;
 import com.mostafa.clinic.dto.response.UserResponse;
-import com.mostafa.clinic.entity.User;
+import com.mostafa.clinic.entity.AppointmentStatus;
+import com.mostafa.clinic.entity.Role;
+import com.mostafa.clinic.repository.AdminListingRepository.AppointmentFilter;
+import com.mostafa.clinic.repository.AdminListingRepository.DoctorFilter;
+import com.mostafa.clinic.repository.AdminListingRepository.UserFilter;
 import com.mostafa.clinic.service.AdminService;
+import com.mostafa.clinic.service.ExportService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -21,6 +36,7 @@ import java.util.List;
 public class AdminController {
 
     private final AdminService adminService;
+    private final ExportService exportService;
 
     @GetMapping("/stats")
     @Operation(summary = "Get dashboard statistics")
@@ -29,21 +45,78 @@ public class AdminController {
     }
 
     @GetMapping("/users")
-    @Operation(summary = "Get all users")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        return ResponseEntity.ok(adminService.getAllUsers());
+    @Operation(summary = "List users, oldest first, one page at a time")
+    public ResponseEntity<CursorPage<UserResponse>> getUsers(
+            @RequestParam(required = false) Role role,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.getUsers(new UserFilter(role, active), cursor, size));
     }
 
     @GetMapping("/doctors")
-    @Operation(summary = "Get all doctors with profiles")
-    public ResponseEntity<List<DoctorResponse>> getAllDoctors() {
-        return ResponseEntity.ok(adminService.getAllDoctors());
+    @Operation(summary = "List doctors with profiles, one page at a time")
+    public ResponseEntity<CursorPage<DoctorResponse>> getDoctors(
+            @RequestParam(required = false) Boolean available,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(adminService.getDoctors(new DoctorFilter(available, active), cursor, size));
     }
 
     @GetMapping("/appointments")
-    @Operation(summary = "Get all appointments")
-    public ResponseEntity<List<AppointmentResponse>> getAllAppointments() {
-        return ResponseEntity.ok(adminService.getAllAppointments());
+    @Operation(summary = "List appointments, newest first, one page at a time")
+    public ResponseEntity<CursorPage<AppointmentResponse>> getAppointments(
+            @RequestParam(required = false) AppointmentStatus status,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) Long patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        AppointmentFilter filter = new AppointmentFilter(status, doctorId, patientId, from, to);
+        return ResponseEntity.ok(adminService.getAppointments(filter, cursor, size));
+    }
+
+    @GetMapping("/export/{dataset}")
+    @Operation(summary = "Stream a full export of appointments or users as CSV or NDJSON, optionally gzipped")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportService.Dataset what = ExportService.Dataset.parse(dataset);
+        ExportService.Format as = ExportService.Format.parse(format);
+        String filename = what.fileStem() + "-" + LocalDate.now() + "." + as.extension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip") : as.mediaType())
+                .body(out -> exportService.export(what, as, gzip, out));
+    }
+
+    @GetMapping("/caches")
+    @Operation(summary = "Hit, miss and eviction counts of the in-process caches")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(adminService.getCacheStats());
+    }
+
+    @GetMapping("/analytics")
+    @Operation(summary = "Bookings, cancellation/completion rates and revenue per day, doctor or specialty")
+    public ResponseEntity<List<AnalyticsPointResponse>> getAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String groupBy,
+            @RequestParam(required = false) Long doctorId,
+            @RequestParam(required = false) String specialty) {
+        return ResponseEntity.ok(adminService.getAnalytics(from, to, groupBy, doctorId, specialty));
+    }
+
+    @PostMapping("/analytics/backfill")
+    @Operation(summary = "Rebuild analytics rollups from appointment history (whole history when no range is given)")
+    public ResponseEntity<Map<String, Integer>> backfillAnalytics(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(Map.of("rebuiltBuckets", adminService.backfillAnalytics(from, to)));
     }
 
     @PutMapping("/doctors/{id}/toggle-availability")
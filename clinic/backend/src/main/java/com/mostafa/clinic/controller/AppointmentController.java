@@ -1,17 +1,21 @@
 package com.mostafa.clinic.controller;
 
 import com.mostafa.clinic.dto.request.AppointmentRequest;
+import com.mostafa.clinic.dto.request.RecurringAppointmentRequest;
 import com.mostafa.clinic.dto.response.AppointmentResponse;
+import com.mostafa.clinic.dto.response.RecurringBookingResponse;
 import com.mostafa.clinic.entity.User;
 import com.mostafa.clinic.service.AppointmentService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -33,6 +37,16 @@ public class AppointmentController {
                 .body(appointmentService.bookAppointment(currentUser.getId(), request));
     }
 
+    @PostMapping("/book/recurring")
+    @Operation(summary = "Book a daily or weekly series of appointments (Patient only)")
+    public ResponseEntity<RecurringBookingResponse> bookRecurring(
+            @AuthenticationPrincipal User currentUser,
+            @Valid @RequestBody RecurringAppointmentRequest request) {
+        RecurringBookingResponse result = appointmentService.bookRecurring(currentUser.getId(), request);
+        return ResponseEntity.status(result.getBooked() > 0 ? HttpStatus.CREATED : HttpStatus.CONFLICT)
+                .body(result);
+    }
+
     @PutMapping("/confirm/{id}")
     @Operation(summary = "Confirm an appointment (Doctor only)")
     public ResponseEntity<AppointmentResponse> confirm(
@@ -72,10 +86,16 @@ public class AppointmentController {
     @GetMapping("/my")
     @Operation(summary = "Get current user's appointments (Patient: own, Doctor: assigned)")
     public ResponseEntity<List<AppointmentResponse>> getMyAppointments(
-            @AuthenticationPrincipal User currentUser) {
-        if (currentUser.getRole().name().equals("DOCTOR")) {
-            return ResponseEntity.ok(appointmentService.getDoctorAppointments(currentUser.getId()));
+            @AuthenticationPrincipal User currentUser,
+            WebRequest webRequest) {
+        String etag = appointmentService.getMyAppointmentsTag(currentUser.getId());
+        if (webRequest.checkNotModified(etag)) {
+            // 304 already written, nothing was loaded
+            return null;
         }
-        return ResponseEntity.ok(appointmentService.getPatientAppointments(currentUser.getId()));
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(appointmentService.getMyAppointments(currentUser));
     }
 }
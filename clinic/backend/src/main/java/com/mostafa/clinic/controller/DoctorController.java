@@ -2,15 +2,21 @@ package com.mostafa.clinic.controller;
 
 import com.mostafa.clinic.dto.request.UpdateDoctorProfileRequest;
 import com.mostafa.clinic.dto.response.DoctorResponse;
+import com.mostafa.clinic.dto.response.EarliestSlotResponse;
+import com.mostafa.clinic.dto.response.TimeSlotResponse;
 import com.mostafa.clinic.entity.User;
 import com.mostafa.clinic.service.DoctorService;
+import com.mostafa.clinic.service.EarliestSlotService;
+import com.mostafa.clinic.service.ScheduleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @RestController
@@ -20,6 +26,8 @@ import java.util.List;
 public class DoctorController {
 
     private final DoctorService doctorService;
+    private final ScheduleService scheduleService;
+    private final EarliestSlotService earliestSlotService;
 
     @GetMapping
     @Operation(summary = "Get all doctors")
@@ -34,9 +42,20 @@ public class DoctorController {
     }
 
     @GetMapping("/search")
-    @Operation(summary = "Search doctors by specialty")
-    public ResponseEntity<List<DoctorResponse>> searchDoctors(@RequestParam String specialty) {
-        return ResponseEntity.ok(doctorService.searchDoctors(specialty));
+    @Operation(summary = "Search doctors by name, specialty or bio keywords; tolerates prefixes and typos")
+    public ResponseEntity<List<DoctorResponse>> searchDoctors(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String specialty,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(doctorService.searchDoctors(q, specialty, limit));
+    }
+
+    @GetMapping("/earliest")
+    @Operation(summary = "Earliest free slots across available doctors of a specialty")
+    public ResponseEntity<List<EarliestSlotResponse>> getEarliestSlots(
+            @RequestParam(required = false) String specialty,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(earliestSlotService.findEarliest(specialty, limit));
     }
 
     @GetMapping("/{id}")
@@ -45,6 +64,15 @@ public class DoctorController {
         return ResponseEntity.ok(doctorService.getDoctorById(id));
     }
 
+    @GetMapping("/{id}/slots")
+    @Operation(summary = "Get a doctor's free slots in a date window (defaults to the next 7 days)")
+    public ResponseEntity<List<TimeSlotResponse>> getFreeSlots(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(scheduleService.getFreeSlots(id, from, to));
+    }
+
     @PutMapping("/profile")
     @Operation(summary = "Update doctor's own profile (Doctor only)")
     public ResponseEntity<DoctorResponse> updateMyProfile(
@@ -0,0 +1,47 @@
+package com.mostafa.clinic.controller;
+
+import com.mostafa.clinic.dto.request.WaitlistRequest;
+import com.mostafa.clinic.dto.response.WaitlistResponse;
+import com.mostafa.clinic.entity.User;
+import com.mostafa.clinic.service.WaitlistService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/appointments/waitlist")
+@RequiredArgsConstructor
+@Tag(name = "Waitlist", description = "Wait for a slot to free up on a doctor's day")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    @PostMapping
+    @Operation(summary = "Join a doctor's waitlist for a day and time window (Patient only)")
+    public ResponseEntity<WaitlistResponse> join(
+            @AuthenticationPrincipal User currentUser,
+            @Valid @RequestBody WaitlistRequest request) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(waitlistService.join(currentUser.getId(), request));
+    }
+
+    @GetMapping("/my")
+    @Operation(summary = "Get current patient's waitlist entries")
+    public ResponseEntity<List<WaitlistResponse>> getMyEntries(@AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(waitlistService.getPatientEntries(currentUser.getId()));
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(summary = "Leave a waitlist (Patient only)")
+    public ResponseEntity<WaitlistResponse> leave(
+            @AuthenticationPrincipal User currentUser,
+            @PathVariable Long id) {
+        return ResponseEntity.ok(waitlistService.leave(currentUser.getId(), id));
+    }
+}
@@ -1,6 +1,8 @@
 package com.mostafa.clinic.dto.request;
 
 import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -22,5 +24,9 @@ public class AppointmentRequest {
     @NotNull
     private LocalTime appointmentTime;
 
+    // Optional, defaults to Appointment.DEFAULT_DURATION_MINUTES
+    @Min(5) @Max(480)
+    private Integer durationMinutes;
+
     private String patientNotes;
 }
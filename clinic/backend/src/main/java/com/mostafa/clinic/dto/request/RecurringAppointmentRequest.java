@@ -0,0 +1,47 @@
+package com.mostafa.clinic.dto.request;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecurringAppointmentRequest {
+
+    public enum Frequency { DAILY, WEEKLY }
+
+    @NotNull
+    private Long doctorId;
+
+    @NotNull @FutureOrPresent
+    private LocalDate startDate;
+
+    @NotNull
+    private LocalTime appointmentTime;
+
+    @Min(5) @Max(480)
+    private Integer durationMinutes;
+
+    @NotNull
+    private Frequency frequency = Frequency.WEEKLY;
+
+    // every N days/weeks
+    @Min(1) @Max(4)
+    private int interval = 1;
+
+    @NotNull @Min(1) @Max(52)
+    private Integer occurrences;
+
+    // true: book nothing unless every occurrence is free; false: book the free ones
+    private boolean allOrNothing = true;
+
+    private String patientNotes;
+}
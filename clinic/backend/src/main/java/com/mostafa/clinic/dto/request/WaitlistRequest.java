@@ -0,0 +1,33 @@
+package com.mostafa.clinic.dto.request;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WaitlistRequest {
+    @NotNull
+    private Long doctorId;
+
+    @NotNull @FutureOrPresent
+    private LocalDate date;
+
+    // the promoted appointment must start and end inside [windowStart, windowEnd]
+    @NotNull
+    private LocalTime windowStart;
+
+    @NotNull
+    private LocalTime windowEnd;
+
+    @Min(5) @Max(480)
+    private Integer durationMinutes;
+}
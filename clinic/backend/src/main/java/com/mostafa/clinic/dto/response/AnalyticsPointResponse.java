@@ -0,0 +1,28 @@
+package com.mostafa.clinic.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * Totals for one group of an analytics query: a day (ISO date), a doctor (id) or a specialty.
+ * Counts are appointments scheduled in the range, by current status; rates are fractions of booked.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AnalyticsPointResponse {
+    private String key;
+    private String label;
+    private long booked;
+    private long pending;
+    private long confirmed;
+    private long completed;
+    private long cancelled;
+    private double cancellationRate;
+    private double completionRate;
+    private BigDecimal revenue;
+}
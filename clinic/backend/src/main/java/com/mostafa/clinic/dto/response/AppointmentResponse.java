@@ -24,6 +24,7 @@ public class AppointmentResponse {
     private String specialty;
     private LocalDate appointmentDate;
     private LocalTime appointmentTime;
+    private int durationMinutes;
     private AppointmentStatus status;
     private String patientNotes;
     private String doctorNotes;
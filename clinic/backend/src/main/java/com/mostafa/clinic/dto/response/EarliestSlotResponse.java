@@ -0,0 +1,23 @@
+package com.mostafa.clinic.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EarliestSlotResponse {
+    private Long doctorId;
+    private String doctorName;
+    private String specialty;
+    private BigDecimal consultationFee;
+    private LocalDate date;
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
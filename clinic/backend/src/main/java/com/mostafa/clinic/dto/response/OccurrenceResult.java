@@ -0,0 +1,20 @@
+package com.mostafa.clinic.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OccurrenceResult {
+    private LocalDate date;
+    private LocalTime time;
+    private boolean booked;
+    private String reason;
+    private AppointmentResponse appointment;
+}
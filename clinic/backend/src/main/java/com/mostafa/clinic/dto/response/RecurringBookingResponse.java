@@ -0,0 +1,17 @@
+package com.mostafa.clinic.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RecurringBookingResponse {
+    private int requested;
+    private int booked;
+    private List<OccurrenceResult> occurrences;
+}
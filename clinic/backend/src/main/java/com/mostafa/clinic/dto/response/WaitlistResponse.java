@@ -0,0 +1,27 @@
+package com.mostafa.clinic.dto.response;
+
+import com.mostafa.clinic.entity.WaitlistStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WaitlistResponse {
+    private Long id;
+    private Long doctorId;
+    private String doctorName;
+    private LocalDate date;
+    private LocalTime windowStart;
+    private LocalTime windowEnd;
+    private int durationMinutes;
+    private WaitlistStatus status;
+    private Long promotedAppointmentId;
+    private LocalDateTime createdAt;
+}
@@ -10,11 +10,28 @@ import java.util.Objects;
  * Appointment entity with manual builder and explicit getters/setters.
  */
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", uniqueConstraints = {
+        // at most one active (non-cancelled) appointment per doctor and start time
+        @UniqueConstraint(name = "uk_appointments_active_slot",
+                columnNames = {"doctor_id", "appointment_date", "appointment_time", "active_slot"})
+}, indexes = {
+        // keyset pagination of the admin listing, newest first, optionally narrowed by one filter
+        @Index(name = "idx_appointments_created", columnList = "created_at, id"),
+        @Index(name = "idx_appointments_status_created", columnList = "status, created_at, id"),
+        @Index(name = "idx_appointments_doctor_created", columnList = "doctor_id, created_at, id"),
+        @Index(name = "idx_appointments_patient_created", columnList = "patient_id, created_at, id"),
+        // a patient's list, newest first; analytics counts and date range by day
+        @Index(name = "idx_appointments_patient_date", columnList = "patient_id, appointment_date, appointment_time"),
+        @Index(name = "idx_appointments_date_doctor_status", columnList = "appointment_date, doctor_id, status")
+})
 public class Appointment {
 
+    public static final int DEFAULT_DURATION_MINUTES = 30;
+
+    // Sequence (not IDENTITY) ids let Hibernate batch inserts; ids are handed out in blocks of 50
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "appointment_seq")
+    @SequenceGenerator(name = "appointment_seq", sequenceName = "appointment_seq", allocationSize = 50)
     private Long id;
 
     // patient (owner) side
@@ -32,9 +49,16 @@ public class Appointment {
     @Column(nullable = false)
     private LocalTime appointmentTime;
 
+    @Column(nullable = false)
+    private int durationMinutes = DEFAULT_DURATION_MINUTES;
+
     @Enumerated(EnumType.STRING)
     private AppointmentStatus status = AppointmentStatus.PENDING;
 
+    // TRUE while the status holds the slot, NULL otherwise so cancelled rows never collide
+    @Column(name = "active_slot")
+    private Boolean activeSlot;
+
     @Column(columnDefinition = "TEXT")
     private String patientNotes;
 
@@ -49,13 +73,14 @@ public class Appointment {
     public Appointment() {}
 
     public Appointment(Long id, User patient, User doctor, LocalDate appointmentDate, LocalTime appointmentTime,
-                       AppointmentStatus status, String patientNotes, String doctorNotes,
+                       int durationMinutes, AppointmentStatus status, String patientNotes, String doctorNotes,
                        LocalDateTime createdAt, LocalDateTime updatedAt) {
         this.id = id;
         this.patient = patient;
         this.doctor = doctor;
         this.appointmentDate = appointmentDate;
         this.appointmentTime = appointmentTime;
+        this.durationMinutes = durationMinutes > 0 ? durationMinutes : DEFAULT_DURATION_MINUTES;
         this.status = status == null ? AppointmentStatus.PENDING : status;
         this.patientNotes = patientNotes;
         this.doctorNotes = doctorNotes;
@@ -71,6 +96,7 @@ public class Appointment {
         private User doctor;
         private LocalDate appointmentDate;
         private LocalTime appointmentTime;
+        private int durationMinutes = DEFAULT_DURATION_MINUTES;
         private AppointmentStatus status = AppointmentStatus.PENDING;
         private String patientNotes;
         private String doctorNotes;
@@ -82,6 +108,7 @@ public class Appointment {
         public Builder doctor(User doctor) { this.doctor = doctor; return this; }
         public Builder appointmentDate(LocalDate appointmentDate) { this.appointmentDate = appointmentDate; return this; }
         public Builder appointmentTime(LocalTime appointmentTime) { this.appointmentTime = appointmentTime; return this; }
+        public Builder durationMinutes(int durationMinutes) { this.durationMinutes = durationMinutes; return this; }
         public Builder status(AppointmentStatus status) { this.status = status; return this; }
         public Builder patientNotes(String patientNotes) { this.patientNotes = patientNotes; return this; }
         public Builder doctorNotes(String doctorNotes) { this.doctorNotes = doctorNotes; return this; }
@@ -89,8 +116,8 @@ public class Appointment {
         public Builder updatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; return this; }
 
         public Appointment build() {
-            Appointment a = new Appointment(id, patient, doctor, appointmentDate, appointmentTime, status,
-                    patientNotes, doctorNotes, createdAt, updatedAt);
+            Appointment a = new Appointment(id, patient, doctor, appointmentDate, appointmentTime, durationMinutes,
+                    status, patientNotes, doctorNotes, createdAt, updatedAt);
             return a;
         }
     }
@@ -111,6 +138,9 @@ public class Appointment {
     public LocalTime getAppointmentTime() { return appointmentTime; }
     public void setAppointmentTime(LocalTime appointmentTime) { this.appointmentTime = appointmentTime; }
 
+    public int getDurationMinutes() { return durationMinutes; }
+    public void setDurationMinutes(int durationMinutes) { this.durationMinutes = durationMinutes; }
+
     public AppointmentStatus getStatus() { return status; }
     public void setStatus(AppointmentStatus status) { this.status = status; }
 
@@ -131,11 +161,17 @@ public class Appointment {
     public void prePersist() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
+        this.activeSlot = activeSlotFor(status);
     }
 
     @PreUpdate
     public void preUpdate() {
         this.updatedAt = LocalDateTime.now();
+        this.activeSlot = activeSlotFor(status);
+    }
+
+    private static Boolean activeSlotFor(AppointmentStatus status) {
+        return status != null && status.holdsSlot() ? Boolean.TRUE : null;
     }
 
     @Override
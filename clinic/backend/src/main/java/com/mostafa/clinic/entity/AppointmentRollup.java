@@ -0,0 +1,99 @@
+package com.mostafa.clinic.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Daily totals for one doctor: how many of the appointments on that day are currently in each
+ * status, and the revenue of the completed ones in minor currency units (piastres).
+ * Maintained by the analytics service; never written by request threads.
+ */
+@Entity
+@Table(name = "appointment_daily_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_rollups_doctor_date", columnNames = {"doctor_id", "rollup_date"})
+}, indexes = {
+        @Index(name = "idx_rollups_date", columnList = "rollup_date")
+})
+public class AppointmentRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "rollup_seq")
+    @SequenceGenerator(name = "rollup_seq", sequenceName = "rollup_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private Long doctorId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    private long pending;
+    private long confirmed;
+    private long completed;
+    private long cancelled;
+
+    @Column(name = "revenue_minor")
+    private long revenueMinor;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public AppointmentRollup() {}
+
+    public AppointmentRollup(Long doctorId, LocalDate rollupDate) {
+        this.doctorId = doctorId;
+        this.rollupDate = rollupDate;
+    }
+
+    // Getters / setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getDoctorId() { return doctorId; }
+    public void setDoctorId(Long doctorId) { this.doctorId = doctorId; }
+
+    public LocalDate getRollupDate() { return rollupDate; }
+    public void setRollupDate(LocalDate rollupDate) { this.rollupDate = rollupDate; }
+
+    public long getPending() { return pending; }
+    public void setPending(long pending) { this.pending = pending; }
+
+    public long getConfirmed() { return confirmed; }
+    public void setConfirmed(long confirmed) { this.confirmed = confirmed; }
+
+    public long getCompleted() { return completed; }
+    public void setCompleted(long completed) { this.completed = completed; }
+
+    public long getCancelled() { return cancelled; }
+    public void setCancelled(long cancelled) { this.cancelled = cancelled; }
+
+    public long getRevenueMinor() { return revenueMinor; }
+    public void setRevenueMinor(long revenueMinor) { this.revenueMinor = revenueMinor; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+
+    @PrePersist
+    @PreUpdate
+    public void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AppointmentRollup)) return false;
+        AppointmentRollup that = (AppointmentRollup) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() { return Objects.hash(id); }
+
+    @Override
+    public String toString() {
+        return "AppointmentRollup{doctorId=" + doctorId + ", date=" + rollupDate + "}";
+    }
+}
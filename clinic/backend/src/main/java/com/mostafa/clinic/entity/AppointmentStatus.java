@@ -1,5 +1,10 @@
 package com.mostafa.clinic.entity;
 
 public enum AppointmentStatus {
-    PENDING, CONFIRMED, COMPLETED, CANCELLED
+    PENDING, CONFIRMED, COMPLETED, CANCELLED;
+
+    /** Whether an appointment in this status still occupies the doctor's time slot. */
+    public boolean holdsSlot() {
+        return this != CANCELLED;
+    }
 }
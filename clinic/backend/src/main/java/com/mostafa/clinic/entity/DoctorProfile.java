@@ -8,7 +8,12 @@ import java.util.Objects;
  * DoctorProfile without Lombok. Manual builder + getters/setters.
  */
 @Entity
-@Table(name = "doctor_profiles")
+@Table(name = "doctor_profiles", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_doctor_profiles_user", columnNames = "user_id")
+}, indexes = {
+        // available doctors in user order, with the specialty filter checked in the index
+        @Index(name = "idx_doctor_profiles_available", columnList = "available, user_id, specialty")
+})
 public class DoctorProfile {
 
     @Id
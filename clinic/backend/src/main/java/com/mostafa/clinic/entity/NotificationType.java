@@ -0,0 +1,5 @@
+package com.mostafa.clinic.entity;
+
+public enum NotificationType {
+    APPOINTMENT_BOOKED, APPOINTMENT_CONFIRMED, APPOINTMENT_CANCELLED
+}
@@ -0,0 +1,5 @@
+package com.mostafa.clinic.entity;
+
+public enum OutboxStatus {
+    PENDING, SENT, COALESCED, FAILED
+}
@@ -0,0 +1,86 @@
+package com.mostafa.clinic.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * One entry of the token revocation log: either a single token id, or a user's new minimum token
+ * version (every token carrying a lower version is revoked). A row is only useful while a token
+ * it revokes could still be unexpired, so it is deleted once {@code expiresAt} has passed.
+ */
+@Entity
+@Table(name = "token_revocations", indexes = {
+        @Index(name = "idx_token_revocations_expires", columnList = "expires_at")
+})
+public class TokenRevocation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revocation_seq")
+    @SequenceGenerator(name = "revocation_seq", sequenceName = "revocation_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /** The revoked token's jti, or null for a version entry. */
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    /** Lowest token version still accepted for the user, or null for a single-token entry. */
+    @Column(name = "min_version")
+    private Integer minVersion;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    public TokenRevocation() {}
+
+    public static TokenRevocation token(Long userId, String tokenId, Instant expiresAt) {
+        TokenRevocation r = new TokenRevocation();
+        r.userId = userId;
+        r.tokenId = tokenId;
+        r.expiresAt = expiresAt;
+        return r;
+    }
+
+    public static TokenRevocation version(Long userId, int minVersion, Instant expiresAt) {
+        TokenRevocation r = new TokenRevocation();
+        r.userId = userId;
+        r.minVersion = minVersion;
+        r.expiresAt = expiresAt;
+        return r;
+    }
+
+    // Getters / setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public String getTokenId() { return tokenId; }
+    public void setTokenId(String tokenId) { this.tokenId = tokenId; }
+
+    public Integer getMinVersion() { return minVersion; }
+    public void setMinVersion(Integer minVersion) { this.minVersion = minVersion; }
+
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TokenRevocation)) return false;
+        TokenRevocation that = (TokenRevocation) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() { return Objects.hash(id); }
+
+    @Override
+    public String toString() {
+        return "TokenRevocation{userId=" + userId + ", tokenId=" + tokenId + ", minVersion=" + minVersion + "}";
+    }
+}
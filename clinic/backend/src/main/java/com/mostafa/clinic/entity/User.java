@@ -6,20 +6,33 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
  * Manual implementation (no Lombok) to ensure builder() and getters exist even if annotation-processing fails.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_role_active", columnList = "role, active, id")
+})
 public class User implements UserDetails {
 
+    /** One shared, immutable authority list per role; getAuthorities() is called on every request. */
+    private static final Map<Role, List<GrantedAuthority>> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role r : Role.values()) {
+            AUTHORITIES.put(r, List.of(new SimpleGrantedAuthority("ROLE_" + r.name())));
+        }
+    }
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "user_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -43,6 +56,10 @@ public class User implements UserDetails {
     @Column(nullable = false)
     private boolean active = true;
 
+    /** Carried by every issued token; raising it revokes all tokens issued before. */
+    @Column(nullable = false)
+    private int tokenVersion;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -79,6 +96,7 @@ public class User implements UserDetails {
         private String phone;
         private Role role;
         private boolean active = true;
+        private int tokenVersion;
         private LocalDateTime createdAt;
         private DoctorProfile doctorProfile;
 
@@ -90,11 +108,13 @@ public class User implements UserDetails {
         public Builder phone(String phone) { this.phone = phone; return this; }
         public Builder role(Role role) { this.role = role; return this; }
         public Builder active(boolean active) { this.active = active; return this; }
+        public Builder tokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; return this; }
         public Builder createdAt(LocalDateTime createdAt) { this.createdAt = createdAt; return this; }
         public Builder doctorProfile(DoctorProfile doctorProfile) { this.doctorProfile = doctorProfile; return this; }
 
         public User build() {
             User u = new User(id, firstName, lastName, email, password, phone, role, active, createdAt, doctorProfile);
+            u.setTokenVersion(tokenVersion);
             if (doctorProfile != null) {
                 doctorProfile.setUser(u); // keep both sides consistent
             }
@@ -131,6 +151,9 @@ public class User implements UserDetails {
     public boolean isActive() { return active; }
     public void setActive(boolean active) { this.active = active; }
 
+    public int getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
@@ -159,11 +182,7 @@ public class User implements UserDetails {
     // ---------------------
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        List<GrantedAuthority> auth = new ArrayList<>();
-        if (role != null) {
-            auth.add(new SimpleGrantedAuthority("ROLE_" + role.name()));
-        }
-        return auth;
+        return role != null ? AUTHORITIES.get(role) : List.of();
     }
 
     @Override
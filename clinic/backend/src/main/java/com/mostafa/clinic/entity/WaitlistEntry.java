@@ -0,0 +1,153 @@
+package com.mostafa.clinic.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * A patient waiting for any slot of a doctor on a given day that starts inside
+ * [windowStart, windowEnd). Manual builder + getters/setters like the other entities.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_doctor_date_status", columnList = "doctor_id, preferred_date, status"),
+        @Index(name = "idx_waitlist_patient", columnList = "patient_id")
+})
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "patient_id", nullable = false)
+    private User patient;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "doctor_id", nullable = false)
+    private User doctor;
+
+    @Column(name = "preferred_date", nullable = false)
+    private LocalDate preferredDate;
+
+    @Column(nullable = false)
+    private LocalTime windowStart;
+
+    @Column(nullable = false)
+    private LocalTime windowEnd;
+
+    @Column(nullable = false)
+    private int durationMinutes = Appointment.DEFAULT_DURATION_MINUTES;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private WaitlistStatus status = WaitlistStatus.WAITING;
+
+    // set once the entry has been turned into an appointment
+    private Long promotedAppointmentId;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public WaitlistEntry() {}
+
+    public WaitlistEntry(Long id, User patient, User doctor, LocalDate preferredDate, LocalTime windowStart,
+                         LocalTime windowEnd, int durationMinutes, WaitlistStatus status,
+                         Long promotedAppointmentId, LocalDateTime createdAt) {
+        this.id = id;
+        this.patient = patient;
+        this.doctor = doctor;
+        this.preferredDate = preferredDate;
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+        this.durationMinutes = durationMinutes > 0 ? durationMinutes : Appointment.DEFAULT_DURATION_MINUTES;
+        this.status = status == null ? WaitlistStatus.WAITING : status;
+        this.promotedAppointmentId = promotedAppointmentId;
+        this.createdAt = createdAt;
+    }
+
+    // Manual builder
+    public static Builder builder() { return new Builder(); }
+    public static class Builder {
+        private Long id;
+        private User patient;
+        private User doctor;
+        private LocalDate preferredDate;
+        private LocalTime windowStart;
+        private LocalTime windowEnd;
+        private int durationMinutes = Appointment.DEFAULT_DURATION_MINUTES;
+        private WaitlistStatus status = WaitlistStatus.WAITING;
+        private Long promotedAppointmentId;
+        private LocalDateTime createdAt;
+
+        public Builder id(Long id) { this.id = id; return this; }
+        public Builder patient(User patient) { this.patient = patient; return this; }
+        public Builder doctor(User doctor) { this.doctor = doctor; return this; }
+        public Builder preferredDate(LocalDate preferredDate) { this.preferredDate = preferredDate; return this; }
+        public Builder windowStart(LocalTime windowStart) { this.windowStart = windowStart; return this; }
+        public Builder windowEnd(LocalTime windowEnd) { this.windowEnd = windowEnd; return this; }
+        public Builder durationMinutes(int durationMinutes) { this.durationMinutes = durationMinutes; return this; }
+        public Builder status(WaitlistStatus status) { this.status = status; return this; }
+        public Builder promotedAppointmentId(Long promotedAppointmentId) { this.promotedAppointmentId = promotedAppointmentId; return this; }
+        public Builder createdAt(LocalDateTime createdAt) { this.createdAt = createdAt; return this; }
+
+        public WaitlistEntry build() {
+            return new WaitlistEntry(id, patient, doctor, preferredDate, windowStart, windowEnd,
+                    durationMinutes, status, promotedAppointmentId, createdAt);
+        }
+    }
+
+    // Getters / setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public User getPatient() { return patient; }
+    public void setPatient(User patient) { this.patient = patient; }
+
+    public User getDoctor() { return doctor; }
+    public void setDoctor(User doctor) { this.doctor = doctor; }
+
+    public LocalDate getPreferredDate() { return preferredDate; }
+    public void setPreferredDate(LocalDate preferredDate) { this.preferredDate = preferredDate; }
+
+    public LocalTime getWindowStart() { return windowStart; }
+    public void setWindowStart(LocalTime windowStart) { this.windowStart = windowStart; }
+
+    public LocalTime getWindowEnd() { return windowEnd; }
+    public void setWindowEnd(LocalTime windowEnd) { this.windowEnd = windowEnd; }
+
+    public int getDurationMinutes() { return durationMinutes; }
+    public void setDurationMinutes(int durationMinutes) { this.durationMinutes = durationMinutes; }
+
+    public WaitlistStatus getStatus() { return status; }
+    public void setStatus(WaitlistStatus status) { this.status = status; }
+
+    public Long getPromotedAppointmentId() { return promotedAppointmentId; }
+    public void setPromotedAppointmentId(Long promotedAppointmentId) { this.promotedAppointmentId = promotedAppointmentId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    @PrePersist
+    public void prePersist() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof WaitlistEntry)) return false;
+        WaitlistEntry that = (WaitlistEntry) o;
+        return Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() { return Objects.hash(id); }
+
+    @Override
+    public String toString() {
+        return "WaitlistEntry{id=" + id + ", date=" + preferredDate + ", window=" + windowStart + "-" + windowEnd + "}";
+    }
+}
@@ -0,0 +1,6 @@
+package com.mostafa.clinic.exception;
+
+/** A bounded resource is saturated; the request was refused without being attempted. */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) { super(message); }
+}
@@ -0,0 +1,5 @@
+package com.mostafa.clinic.exception;
+
+public class SlotConflictException extends BusinessException {
+    public SlotConflictException(String message) { super(message); }
+}
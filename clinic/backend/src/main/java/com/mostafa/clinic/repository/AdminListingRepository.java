@@ -0,0 +1,96 @@
+package com.mostafa.clinic.repository;
+
+import com.mostafa.clinic.dto.response.AppointmentResponse;
+import com.mostafa.clinic.dto.response.DoctorResponse;
+import com.mostafa.clinic.dto.response.UserResponse;
+import com.mostafa.clinic.entity.AppointmentStatus;
+import com.mostafa.clinic.entity.Role;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset-paginated admin listings. Only the filters actually given end up in the WHERE clause,
+ * so each combination stays a plain range scan on one of the (filter, sort key) indexes and
+ * the cost of a page does not depend on how deep into the listing it is.
+ */
+@Repository
+public class AdminListingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /** Newest first; continues strictly after (afterCreatedAt, afterId) when given. */
+    public List<AppointmentResponse> findAppointments(AppointmentFilter filter,
+                                                      LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        Where where = new Where();
+        where.add("a.status = :status", "status", filter.status());
+        where.add("d.id = :doctorId", "doctorId", filter.doctorId());
+        where.add("p.id = :patientId", "patientId", filter.patientId());
+        where.add("a.appointmentDate >= :from", "from", filter.from());
+        where.add("a.appointmentDate <= :to", "to", filter.to());
+        if (afterId != null) {
+            where.add("(a.createdAt < :afterCreatedAt OR (a.createdAt = :afterCreatedAt AND a.id < :afterId))",
+                    "afterCreatedAt", afterCreatedAt);
+            where.params.put("afterId", afterId);
+        }
+        return page(AppointmentRepository.RESPONSE_PROJECTION, where,
+                "ORDER BY a.createdAt DESC, a.id DESC", AppointmentResponse.class, limit);
+    }
+
+    /** Ascending by id, continuing after afterId when given. */
+    public List<UserResponse> findUsers(UserFilter filter, Long afterId, int limit) {
+        Where where = new Where();
+        where.add("u.role = :role", "role", filter.role());
+        where.add("u.active = :active", "active", filter.active());
+        where.add("u.id > :afterId", "afterId", afterId);
+        return page(UserRepository.RESPONSE_PROJECTION, where, "ORDER BY u.id", UserResponse.class, limit);
+    }
+
+    /** Ascending by doctor (user) id, continuing after afterId when given. */
+    public List<DoctorResponse> findDoctors(DoctorFilter filter, Long afterId, int limit) {
+        Where where = new Where();
+        where.add("p.available = :available", "available", filter.available());
+        where.add("u.active = :active", "active", filter.active());
+        where.add("u.id > :afterId", "afterId", afterId);
+        return page(DoctorProfileRepository.RESPONSE_PROJECTION, where, "ORDER BY u.id", DoctorResponse.class, limit);
+    }
+
+    private <T> List<T> page(String select, Where where, String orderBy, Class<T> type, int limit) {
+        StringBuilder jpql = new StringBuilder(select);
+        if (!where.predicates.isEmpty()) {
+            jpql.append("WHERE ").append(String.join(" AND ", where.predicates)).append(' ');
+        }
+        jpql.append(orderBy);
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        where.params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    public record AppointmentFilter(AppointmentStatus status, Long doctorId, Long patientId,
+                                    LocalDate from, LocalDate to) {}
+
+    public record UserFilter(Role role, Boolean active) {}
+
+    public record DoctorFilter(Boolean available, Boolean active) {}
+
+    private static final class Where {
+        private final List<String> predicates = new ArrayList<>();
+        private final Map<String, Object> params = new HashMap<>();
+
+        void add(String predicate, String param, Object value) {
+            if (value != null) {
+                predicates.add(predicate);
+                params.put(param, value);
+            }
+        }
+    }
+}
@@ -1,31 +1,75 @@
 package com.mostafa.clinic.repository;
 
+import com.mostafa.clinic.dto.response.AppointmentResponse;
 import com.mostafa.clinic.entity.Appointment;
 import com.mostafa.clinic.entity.AppointmentStatus;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface AppointmentRepository extends JpaRepository<Appointment, Long> {
 
-    List<Appointment> findByPatientIdOrderByAppointmentDateDescAppointmentTimeDesc(Long patientId);
+    /**
+     * Builds the response rows straight from one join, so list endpoints run a single statement
+     * instead of loading both users and the doctor's profile for every appointment.
+     */
+    String RESPONSE_PROJECTION = "SELECT new com.mostafa.clinic.dto.response.AppointmentResponse(" +
+            "a.id, p.id, CONCAT(p.firstName, ' ', p.lastName), p.email, " +
+            "d.id, CONCAT(d.firstName, ' ', d.lastName), d.email, dp.specialty, " +
+            "a.appointmentDate, a.appointmentTime, a.durationMinutes, a.status, " +
+            "a.patientNotes, a.doctorNotes, a.createdAt) " +
+            "FROM Appointment a JOIN a.patient p JOIN a.doctor d LEFT JOIN d.doctorProfile dp ";
+
+    @Query(RESPONSE_PROJECTION +
+           "WHERE p.id = :patientId ORDER BY a.appointmentDate DESC, a.appointmentTime DESC")
+    List<AppointmentResponse> findResponsesByPatientId(@Param("patientId") Long patientId);
+
+    @Query(RESPONSE_PROJECTION +
+           "WHERE d.id = :doctorId ORDER BY a.appointmentDate ASC, a.appointmentTime ASC")
+    List<AppointmentResponse> findResponsesByDoctorId(@Param("doctorId") Long doctorId);
 
-    List<Appointment> findByDoctorIdOrderByAppointmentDateAscAppointmentTimeAsc(Long doctorId);
+    /** Forward-only scan for exports; must be consumed inside a transaction and closed. */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(RESPONSE_PROJECTION + "ORDER BY a.id")
+    Stream<AppointmentResponse> streamAllResponses();
 
     List<Appointment> findByDoctorIdAndAppointmentDate(Long doctorId, LocalDate date);
 
+    List<Appointment> findByDoctorIdInAndAppointmentDateBetween(Collection<Long> doctorIds, LocalDate from, LocalDate to);
+
     boolean existsByDoctorIdAndAppointmentDateAndAppointmentTimeAndStatusNot(
             Long doctorId, LocalDate date, LocalTime time, AppointmentStatus status);
 
     long countByStatus(AppointmentStatus status);
 
-    @Query("SELECT a FROM Appointment a ORDER BY a.createdAt DESC")
-    List<Appointment> findAllOrderByCreatedAtDesc();
+    @Query("SELECT a.status, COUNT(a) FROM Appointment a GROUP BY a.status")
+    List<Object[]> countGroupByStatus();
+
+    /** Rows of (doctorId, appointmentDate, status, count); used to (re)build the analytics rollups. */
+    @Query("SELECT a.doctor.id, a.appointmentDate, a.status, COUNT(a) FROM Appointment a " +
+           "WHERE a.appointmentDate BETWEEN :from AND :to " +
+           "GROUP BY a.doctor.id, a.appointmentDate, a.status")
+    List<Object[]> countByDoctorDateAndStatus(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /** A single row of (first, last) appointment date, both null when there are no appointments. */
+    @Query("SELECT MIN(a.appointmentDate), MAX(a.appointmentDate) FROM Appointment a")
+    List<Object[]> findAppointmentDateRange();
 
     List<Appointment> findByDoctorIdAndStatus(Long doctorId, AppointmentStatus status);
 }
@@ -0,0 +1,9 @@
+package com.mostafa.clinic.repository;
+
+import com.mostafa.clinic.entity.AppointmentRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface AppointmentRollupRepository extends JpaRepository<AppointmentRollup, Long> {
+}
@@ -1,7 +1,10 @@
 package com.mostafa.clinic.repository;
 
+import com.mostafa.clinic.dto.response.DoctorResponse;
 import com.mostafa.clinic.entity.DoctorProfile;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,7 +12,25 @@ import java.util.Optional;
 
 @Repository
 public interface DoctorProfileRepository extends JpaRepository<DoctorProfile, Long> {
+
+    /** Doctor rows built from one profile/user join; every doctor account is created with its profile. */
+    String RESPONSE_PROJECTION = "SELECT new com.mostafa.clinic.dto.response.DoctorResponse(" +
+            "u.id, u.firstName, u.lastName, u.email, u.phone, p.specialty, p.bio, p.experienceYears, " +
+            "p.consultationFee, p.workingDays, p.workingHours, p.available) " +
+            "FROM DoctorProfile p JOIN p.user u ";
+
     Optional<DoctorProfile> findByUserId(Long userId);
-    List<DoctorProfile> findByAvailableTrue();
-    List<DoctorProfile> findBySpecialtyContainingIgnoreCase(String specialty);
+
+    @Query(RESPONSE_PROJECTION + "ORDER BY u.id")
+    List<DoctorResponse> findAllResponses();
+
+    @Query(RESPONSE_PROJECTION + "WHERE p.available = true ORDER BY u.id")
+    List<DoctorResponse> findAvailableResponses();
+
+    @Query(RESPONSE_PROJECTION + "WHERE u.id = :userId")
+    Optional<DoctorResponse> findResponseByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT p FROM DoctorProfile p JOIN FETCH p.user " +
+           "WHERE p.available = true AND LOWER(p.specialty) LIKE LOWER(CONCAT('%', :specialty, '%'))")
+    List<DoctorProfile> findAvailableBySpecialtyWithUser(@Param("specialty") String specialty);
 }
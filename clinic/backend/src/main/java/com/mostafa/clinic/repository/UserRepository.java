@@ -1,17 +1,49 @@
 package com.mostafa.clinic.repository;
 
+import com.mostafa.clinic.dto.response.UserResponse;
 import com.mostafa.clinic.entity.Role;
 import com.mostafa.clinic.entity.User;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    String RESPONSE_PROJECTION = "SELECT new com.mostafa.clinic.dto.response.UserResponse(" +
+            "u.id, u.firstName, u.lastName, u.email, u.phone, u.role, u.active, u.createdAt) FROM User u ";
+
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
     List<User> findByRole(Role role);
     long countByRole(Role role);
+
+    /** Replaces a password hash without loading the user, e.g. after a strength upgrade at login. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
+
+    @Query("SELECT u.role, COUNT(u) FROM User u GROUP BY u.role")
+    List<Object[]> countGroupByRole();
+
+    /** Forward-only scan for exports; must be consumed inside a transaction and closed. */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(RESPONSE_PROJECTION + "ORDER BY u.id")
+    Stream<UserResponse> streamAllResponses();
 }
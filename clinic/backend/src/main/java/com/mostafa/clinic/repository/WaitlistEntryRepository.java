@@ -0,0 +1,25 @@
+package com.mostafa.clinic.repository;
+
+import com.mostafa.clinic.entity.WaitlistEntry;
+import com.mostafa.clinic.entity.WaitlistStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByDoctorIdAndPreferredDateAndStatusOrderByIdAsc(
+            Long doctorId, LocalDate date, WaitlistStatus status);
+
+    @Query("SELECT w FROM WaitlistEntry w JOIN FETCH w.doctor " +
+           "WHERE w.patient.id = :patientId ORDER BY w.preferredDate DESC, w.id DESC")
+    List<WaitlistEntry> findByPatientIdWithDoctor(@Param("patientId") Long patientId);
+
+    boolean existsByPatientIdAndDoctorIdAndPreferredDateAndStatus(
+            Long patientId, Long doctorId, LocalDate date, WaitlistStatus status);
+}
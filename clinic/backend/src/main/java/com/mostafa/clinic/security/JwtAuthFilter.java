@@ -1,27 +1,49 @@
 package com.mostafa.clinic.security;
 
+import com.mostafa.clinic.entity.User;
+import com.mostafa.clinic.service.PrincipalCache;
+import com.mostafa.clinic.service.TokenRevocationRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
-@RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationRegistry revocationRegistry;
+    private final Timer authenticatedTimer;
+    private final Timer rejectedTimer;
+
+    public JwtAuthFilter(JwtService jwtService, PrincipalCache principalCache,
+                         TokenRevocationRegistry revocationRegistry, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.principalCache = principalCache;
+        this.revocationRegistry = revocationRegistry;
+        this.authenticatedTimer = authTimer(meterRegistry, "authenticated");
+        this.rejectedTimer = authTimer(meterRegistry, "rejected");
+    }
+
+    private static Timer authTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("clinic.auth.filter")
+                .description("Time spent resolving a bearer token to a principal, excluding the rest of the request")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -37,25 +59,52 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             return;
         }
 
+        long started = System.nanoTime();
+        boolean authenticated = false;
         try {
-            final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
-
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+            // one verification pass: signature, expiry and subject come from the same parse (or cache hit)
+            final VerifiedToken token = jwtService.verify(authHeader.substring(7));
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                User user = principal(token);
+                if (user != null) {
                     UsernamePasswordAuthenticationToken authToken =
-                            new UsernamePasswordAuthenticationToken(
-                                    userDetails, null, userDetails.getAuthorities());
+                            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
+                    authenticated = true;
                 }
             }
         } catch (Exception e) {
             // Invalid token — just continue without authentication
         }
+        (authenticated ? authenticatedTimer : rejectedTimer).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
 
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * The principal for a verified token, or null if it has been revoked. Current tokens carry
+     * everything needed and are checked against the in-memory revocation registry only.
+     * Tokens issued before those claims existed fall back to the cached user row.
+     */
+    private User principal(VerifiedToken token) {
+        if (token.isSelfContained()) {
+            if (revocationRegistry.isRevoked(token.userId(), token.version(), token.tokenId())) {
+                return null;
+            }
+            return User.builder()
+                    .id(token.userId())
+                    .email(token.subject())
+                    .role(token.role())
+                    .tokenVersion(token.version())
+                    .build();
+        }
+        User user = principalCache.get(token.subject());
+        // deactivation evicts the cached principal and raises the token version, so it is refused either way
+        if (user == null || !user.isEnabled() || revocationRegistry.isRevoked(user.getId(), 0, null)) {
+            return null;
+        }
+        return user;
+    }
 }
@@ -0,0 +1,23 @@
+package com.mostafa.clinic.security;
+
+import com.mostafa.clinic.entity.Role;
+import io.jsonwebtoken.Claims;
+
+import java.time.Instant;
+
+/**
+ * A token whose signature and expiry have been checked, with its parsed claims. Tokens issued
+ * before user id, role and version were added as claims have a null userId and role.
+ */
+public record VerifiedToken(String subject, Instant expiresAt, Long userId, Role role, int version,
+                            String tokenId, Claims claims) {
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    /** True if the token names its user and role, so no lookup is needed to build the principal. */
+    public boolean isSelfContained() {
+        return userId != null && role != null;
+    }
+}
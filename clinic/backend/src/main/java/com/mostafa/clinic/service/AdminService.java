@@ -1,68 +1,97 @@
 package com.mostafa.clinic.service;
 
 import com.mostafa.clinic.dto.response.AdminStatsResponse;
+import com.mostafa.clinic.dto.response.AnalyticsPointResponse;
 import com.mostafa.clinic.dto.response.AppointmentResponse;
+import com.mostafa.clinic.dto.response.CacheStatsResponse;
+import com.mostafa.clinic.dto.response.CursorPage;
 import com.mostafa.clinic.dto.response.DoctorResponse;
 import com.mostafa.clinic.dto.response.UserResponse;
-import com.mostafa.clinic.entity.AppointmentStatus;
 import com.mostafa.clinic.entity.Role;
 import com.mostafa.clinic.entity.User;
+import com.mostafa.clinic.exception.BusinessException;
 import com.mostafa.clinic.exception.ResourceNotFoundException;
-import com.mostafa.clinic.repository.AppointmentRepository;
+import com.mostafa.clinic.repository.AdminListingRepository;
+import com.mostafa.clinic.repository.AdminListingRepository.AppointmentFilter;
+import com.mostafa.clinic.repository.AdminListingRepository.DoctorFilter;
+import com.mostafa.clinic.repository.AdminListingRepository.UserFilter;
 import com.mostafa.clinic.repository.DoctorProfileRepository;
 import com.mostafa.clinic.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class AdminService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int DEFAULT_ANALYTICS_DAYS = 30;
+
     private final UserRepository userRepository;
-    private final AppointmentRepository appointmentRepository;
     private final DoctorProfileRepository doctorProfileRepository;
-    private final AppointmentService appointmentService;
-    private final DoctorService doctorService;
+    private final AdminListingRepository adminListingRepository;
+    private final ClinicStatistics clinicStatistics;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
+    private final AnalyticsService analyticsService;
+    private final DoctorEvents doctorEvents;
+    private final CacheRegistry cacheRegistry;
 
+    /** Served from in-memory counters; no transaction or connection is needed. */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public AdminStatsResponse getStats() {
-        return AdminStatsResponse.builder()
-                .totalPatients(userRepository.countByRole(Role.PATIENT))
-                .totalDoctors(userRepository.countByRole(Role.DOCTOR))
-                .totalAppointments(appointmentRepository.count())
-                .pendingAppointments(appointmentRepository.countByStatus(AppointmentStatus.PENDING))
-                .confirmedAppointments(appointmentRepository.countByStatus(AppointmentStatus.CONFIRMED))
-                .completedAppointments(appointmentRepository.countByStatus(AppointmentStatus.COMPLETED))
-                .cancelledAppointments(appointmentRepository.countByStatus(AppointmentStatus.CANCELLED))
-                .build();
+        return clinicStatistics.snapshot();
+    }
+
+    public CursorPage<UserResponse> getUsers(UserFilter filter, String cursor, int size) {
+        String[] keys = PageCursor.decode(cursor, 1);
+        int limit = pageSize(size);
+        List<UserResponse> rows = adminListingRepository.findUsers(
+                filter, keys != null ? PageCursor.id(keys[0]) : null, limit + 1);
+        return toPage(rows, limit, u -> PageCursor.encode(u.getId()));
     }
 
-    public List<UserResponse> getAllUsers() {
-        return userRepository.findAll().stream()
-                .map(user -> UserResponse.builder()
-                        .id(user.getId())
-                        .firstName(user.getFirstName())
-                        .lastName(user.getLastName())
-                        .email(user.getEmail())
-                        .phone(user.getPhone())
-                        .role(user.getRole())
-                        .active(user.isActive())
-                        .createdAt(user.getCreatedAt())
-                        .build())
-                .toList();
+    public CursorPage<DoctorResponse> getDoctors(DoctorFilter filter, String cursor, int size) {
+        String[] keys = PageCursor.decode(cursor, 1);
+        int limit = pageSize(size);
+        List<DoctorResponse> rows = adminListingRepository.findDoctors(
+                filter, keys != null ? PageCursor.id(keys[0]) : null, limit + 1);
+        return toPage(rows, limit, d -> PageCursor.encode(d.getId()));
     }
 
-    public List<DoctorResponse> getAllDoctors() {
-        return userRepository.findByRole(Role.DOCTOR).stream()
-                .map(doctorService::mapToResponse).toList();
+    public CursorPage<AppointmentResponse> getAppointments(AppointmentFilter filter, String cursor, int size) {
+        if (filter.from() != null && filter.to() != null && filter.to().isBefore(filter.from())) {
+            throw new BusinessException("'to' must not be before 'from'");
+        }
+        String[] keys = PageCursor.decode(cursor, 2);
+        int limit = pageSize(size);
+        List<AppointmentResponse> rows = adminListingRepository.findAppointments(filter,
+                keys != null ? PageCursor.timestamp(keys[0]) : null,
+                keys != null ? PageCursor.id(keys[1]) : null,
+                limit + 1);
+        return toPage(rows, limit, a -> PageCursor.encode(a.getCreatedAt(), a.getId()));
     }
 
-    public List<AppointmentResponse> getAllAppointments() {
-        return appointmentRepository.findAllOrderByCreatedAtDesc().stream()
-                .map(appointmentService::mapToResponse).toList();
+    private static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    /** Rows are fetched with one extra element so the last page is known without a count query. */
+    private static <T> CursorPage<T> toPage(List<T> rows, int limit, Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > limit;
+        List<T> items = hasMore ? rows.subList(0, limit) : rows;
+        return CursorPage.<T>builder()
+                .items(items)
+                .hasMore(hasMore)
+                .nextCursor(hasMore ? cursorOf.apply(items.get(limit - 1)) : null)
+                .build();
     }
 
     @Transactional
@@ -71,6 +100,7 @@ public class AdminService {
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
         profile.setAvailable(!profile.isAvailable());
         doctorProfileRepository.save(profile);
+        doctorEvents.changed(profile.getUser(), profile);
     }
 
     @Transactional
@@ -78,6 +108,36 @@ public class AdminService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         user.setActive(!user.isActive());
+        if (!user.isActive()) {
+            tokenRevocationRegistry.revokeAll(user);
+        }
         userRepository.save(user);
+        principalCache.evictAfterCommit(user.getEmail());
+        if (user.getRole() == Role.DOCTOR && user.getDoctorProfile() != null) {
+            doctorEvents.changed(user, user.getDoctorProfile());
+        }
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<CacheStatsResponse> getCacheStats() {
+        return cacheRegistry.snapshot();
+    }
+
+    /** Reads only the in-memory rollups. */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<AnalyticsPointResponse> getAnalytics(LocalDate from, LocalDate to, String groupBy,
+                                                     Long doctorId, String specialty) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_ANALYTICS_DAYS - 1L);
+        return analyticsService.query(start, end, AnalyticsService.GroupBy.parse(groupBy), doctorId,
+                specialty == null || specialty.isBlank() ? null : specialty.trim());
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int backfillAnalytics(LocalDate from, LocalDate to) {
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new BusinessException("'to' must not be before 'from'");
+        }
+        return analyticsService.backfill(from, to);
     }
 }
@@ -0,0 +1,420 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.dto.response.AnalyticsPointResponse;
+import com.mostafa.clinic.dto.response.DoctorResponse;
+import com.mostafa.clinic.entity.AppointmentRollup;
+import com.mostafa.clinic.entity.AppointmentStatus;
+import com.mostafa.clinic.exception.BusinessException;
+import com.mostafa.clinic.exception.ServiceBusyException;
+import com.mostafa.clinic.repository.AppointmentRepository;
+import com.mostafa.clinic.repository.AppointmentRollupRepository;
+import com.mostafa.clinic.repository.DoctorProfileRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Booking and revenue rollups per doctor and appointment day. Buckets live in memory, move with
+ * every committed appointment change and are written to {@code appointment_daily_rollups} in the
+ * background once they cover the whole history, so analytics queries never aggregate the
+ * appointments table. Revenue is counted in minor units for each completed appointment at the
+ * doctor's fee when the change was applied, so later fee changes do not reprice it; a backfill
+ * reprices the buckets it rebuilds at today's fees.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsService implements AppointmentEvents.Listener, DoctorEvents.Listener {
+
+    static final int MAX_RANGE_DAYS = 1096;
+    private static final int MAX_BACKFILL_ATTEMPTS = 5;
+    private static final int CURRENCY_SCALE = 2;
+
+    private final AppointmentRollupRepository rollupRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final AppointmentEvents appointmentEvents;
+    private final DoctorEvents doctorEvents;
+    private final TransactionTemplate transactionTemplate;
+
+    // appointment day -> doctor -> bucket; sorted so a date range is a subMap view
+    private final ConcurrentNavigableMap<LocalDate, ConcurrentMap<Long, Bucket>> days = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<Long, DoctorInfo> doctors = new ConcurrentHashMap<>();
+    private final Queue<Bucket> dirty = new ConcurrentLinkedQueue<>();
+    // live updates share it; a backfill takes it exclusively only to swap in its recomputed buckets
+    private final ReentrantReadWriteLock backfillLock = new ReentrantReadWriteLock();
+    // false until the buckets cover the whole history; partial rollups are never persisted
+    private volatile boolean historyComplete;
+    // days touched by live updates while each running backfill's query was open
+    private final Set<ChangedDays> runningBackfills = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void registerForChanges() {
+        appointmentEvents.addListener(this);
+        doctorEvents.addListener(this);
+    }
+
+    /** Loads the persisted rollups, or builds them from the appointments table when there are none. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        List<AppointmentRollup> rows = transactionTemplate.execute(status -> {
+            doctorProfileRepository.findAllResponses().forEach(d -> doctors.put(d.getId(), DoctorInfo.of(d)));
+            return rollupRepository.findAll();
+        });
+        if (rows == null || rows.isEmpty()) {
+            backfillHistory();
+            return;
+        }
+        for (AppointmentRollup row : rows) {
+            Bucket bucket = bucket(row.getDoctorId(), row.getRollupDate());
+            bucket.rowId = row.getId();
+            // added, not set: a change may already have landed in this bucket during startup
+            bucket.add(AppointmentStatus.PENDING, row.getPending());
+            bucket.add(AppointmentStatus.CONFIRMED, row.getConfirmed());
+            bucket.add(AppointmentStatus.COMPLETED, row.getCompleted());
+            bucket.add(AppointmentStatus.CANCELLED, row.getCancelled());
+            bucket.revenueMinor.addAndGet(row.getRevenueMinor());
+        }
+        historyComplete = true;
+        log.info("📊 Loaded {} analytics rollups", rows.size());
+    }
+
+    /** Retries the startup backfill until it succeeds; nothing is flushed before then. */
+    @Scheduled(fixedDelayString = "${app.analytics.backfill-retry-ms:60000}",
+            initialDelayString = "${app.analytics.backfill-retry-ms:60000}")
+    public void retryHistoryBackfill() {
+        if (!historyComplete) {
+            backfillHistory();
+        }
+    }
+
+    private void backfillHistory() {
+        try {
+            backfill(null, null);
+        } catch (ServiceBusyException e) {
+            log.warn("⚠️  Analytics history backfill deferred, retrying in the background: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onAppointmentChange(AppointmentChange change) {
+        backfillLock.readLock().lock();
+        try {
+            Bucket bucket = bucket(change.doctorId(), change.date());
+            long fee = feeMinor(change.doctorId());
+            if (change.previous() != null) {
+                bucket.add(change.previous(), -1);
+                if (change.previous() == AppointmentStatus.COMPLETED) {
+                    bucket.revenueMinor.addAndGet(-fee);
+                }
+            }
+            bucket.add(change.current(), 1);
+            if (change.current() == AppointmentStatus.COMPLETED) {
+                bucket.revenueMinor.addAndGet(fee);
+            }
+            markDirty(bucket);
+            runningBackfills.forEach(backfill -> backfill.dates.add(change.date()));
+        } finally {
+            backfillLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void onDoctorChange(DoctorChange change) {
+        doctors.put(change.doctorId(), new DoctorInfo(change.firstName() + " " + change.lastName(),
+                change.specialty(), toMinor(change.consultationFee())));
+    }
+
+    /**
+     * Recomputes the buckets of [from, to] from the appointments table with one GROUP BY query.
+     * Null bounds default to the first and last appointment day. Returns the number of buckets rebuilt.
+     * The query runs without blocking live updates; its result is only swapped in if no change inside
+     * the range was applied or committing meanwhile, otherwise it is run again.
+     */
+    public int backfill(LocalDate from, LocalDate to) {
+        ChangedDays changed = new ChangedDays();
+        runningBackfills.add(changed);
+        try {
+            int rebuilt = backfill(from, to, changed);
+            if (from == null && to == null) {
+                historyComplete = true;
+            }
+            return rebuilt;
+        } finally {
+            runningBackfills.remove(changed);
+        }
+    }
+
+    private int backfill(LocalDate from, LocalDate to, ChangedDays changed) {
+        for (int attempt = 1; attempt <= MAX_BACKFILL_ATTEMPTS; attempt++) {
+            changed.dates.clear();
+            LocalDate[] range = {from, to};
+            List<Object[]> counts = transactionTemplate.execute(status -> {
+                if (range[0] == null || range[1] == null) {
+                    Object[] bounds = appointmentRepository.findAppointmentDateRange().get(0);
+                    range[0] = range[0] != null ? range[0] : (LocalDate) bounds[0];
+                    range[1] = range[1] != null ? range[1] : (LocalDate) bounds[1];
+                }
+                return range[0] == null || range[1] == null ? List.<Object[]>of()
+                        : appointmentRepository.countByDoctorDateAndStatus(range[0], range[1]);
+            });
+
+            backfillLock.writeLock().lock();
+            try {
+                // a change the query may have seen would otherwise be counted again when it is applied
+                if (range[0] != null && range[1] != null && (changed.within(range[0], range[1])
+                        || appointmentEvents.hasUndelivered(range[0], range[1]))) {
+                    log.debug("Appointments changed during analytics backfill attempt {}, retrying", attempt);
+                    continue;
+                }
+                int rebuilt = swapIn(counts, range[0], range[1]);
+                log.info("📊 Rebuilt {} analytics rollups for {} .. {}", rebuilt, range[0], range[1]);
+                return rebuilt;
+            } finally {
+                backfillLock.writeLock().unlock();
+            }
+        }
+        throw new ServiceBusyException("Appointments kept changing during the analytics backfill, please retry");
+    }
+
+    /** Sets the buckets of [from, to] to the queried counts. Runs under the exclusive lock. */
+    private int swapIn(List<Object[]> counts, LocalDate from, LocalDate to) {
+        Map<Bucket, long[]> rebuilt = new HashMap<>();
+        for (Object[] row : counts) {
+            Bucket bucket = bucket((Long) row[0], (LocalDate) row[1]);
+            rebuilt.computeIfAbsent(bucket, b -> new long[AppointmentStatus.values().length])
+                    [((AppointmentStatus) row[2]).ordinal()] = (Long) row[3];
+        }
+        if (from != null && to != null) {
+            // buckets in range that no longer have appointments are zeroed
+            days.subMap(from, true, to, true).values().forEach(day -> day.values()
+                    .forEach(b -> rebuilt.putIfAbsent(b, new long[AppointmentStatus.values().length])));
+        }
+        rebuilt.forEach((bucket, statusCounts) -> {
+            for (AppointmentStatus status : AppointmentStatus.values()) {
+                bucket.counts.set(status.ordinal(), statusCounts[status.ordinal()]);
+            }
+            bucket.revenueMinor.set(statusCounts[AppointmentStatus.COMPLETED.ordinal()] * feeMinor(bucket.doctorId));
+            markDirty(bucket);
+        });
+        return rebuilt.size();
+    }
+
+    /** Writes changed buckets: one lookup of their rows, then batched inserts and updates. */
+    @Scheduled(fixedDelayString = "${app.analytics.flush-ms:10000}")
+    @PreDestroy
+    public void flush() {
+        if (!historyComplete) {
+            // rows would make the next startup skip its backfill and lose the missing history for good
+            return;
+        }
+        List<Bucket> batch = new ArrayList<>();
+        for (Bucket b = dirty.poll(); b != null; b = dirty.poll()) {
+            b.dirty.set(false);
+            batch.add(b);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Map<Long, AppointmentRollup> rows = new HashMap<>();
+                rollupRepository.findAllById(batch.stream().map(b -> b.rowId).filter(Objects::nonNull).toList())
+                        .forEach(r -> rows.put(r.getId(), r));
+                List<AppointmentRollup> toSave = new ArrayList<>(batch.size());
+                for (Bucket b : batch) {
+                    AppointmentRollup row = b.rowId != null ? rows.get(b.rowId) : null;
+                    if (row == null) {
+                        row = new AppointmentRollup(b.doctorId, b.date);
+                    }
+                    row.setPending(b.count(AppointmentStatus.PENDING));
+                    row.setConfirmed(b.count(AppointmentStatus.CONFIRMED));
+                    row.setCompleted(b.count(AppointmentStatus.COMPLETED));
+                    row.setCancelled(b.count(AppointmentStatus.CANCELLED));
+                    row.setRevenueMinor(b.revenueMinor.get());
+                    toSave.add(row);
+                }
+                List<AppointmentRollup> saved = rollupRepository.saveAll(toSave);
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).rowId = saved.get(i).getId();
+                }
+            });
+        } catch (RuntimeException e) {
+            log.warn("⚠️  Could not persist {} analytics rollups, will retry: {}", batch.size(), e.getMessage());
+            batch.forEach(this::markDirty);
+        }
+    }
+
+    public List<AnalyticsPointResponse> query(LocalDate from, LocalDate to, GroupBy groupBy,
+                                              Long doctorId, String specialty) {
+        if (to.isBefore(from)) {
+            throw new BusinessException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new BusinessException("Analytics range cannot exceed " + MAX_RANGE_DAYS + " days");
+        }
+
+        Map<String, Totals> groups = new HashMap<>();
+        for (Map.Entry<LocalDate, ConcurrentMap<Long, Bucket>> day : days.subMap(from, true, to, true).entrySet()) {
+            Collection<Bucket> buckets = doctorId != null
+                    ? Optional.ofNullable(day.getValue().get(doctorId)).map(List::of).orElse(List.of())
+                    : day.getValue().values();
+            for (Bucket bucket : buckets) {
+                DoctorInfo doctor = doctors.getOrDefault(bucket.doctorId, DoctorInfo.UNKNOWN);
+                if (specialty != null && !specialty.equalsIgnoreCase(doctor.specialty())) {
+                    continue;
+                }
+                String key = switch (groupBy) {
+                    case DAY -> day.getKey().toString();
+                    case DOCTOR -> bucket.doctorId.toString();
+                    case SPECIALTY -> doctor.specialty();
+                };
+                groups.computeIfAbsent(key, k -> new Totals(k, groupBy == GroupBy.DOCTOR ? doctor.name() : k))
+                        .add(bucket);
+            }
+        }
+
+        Comparator<Totals> order = groupBy == GroupBy.DAY
+                ? Comparator.comparing(Totals::key)
+                : Comparator.comparingLong(Totals::revenueMinor).reversed().thenComparing(Totals::key);
+        return groups.values().stream().sorted(order).map(Totals::toResponse).toList();
+    }
+
+    private Bucket bucket(Long doctorId, LocalDate date) {
+        return days.computeIfAbsent(date, d -> new ConcurrentHashMap<>())
+                .computeIfAbsent(doctorId, id -> new Bucket(id, date));
+    }
+
+    private void markDirty(Bucket bucket) {
+        if (bucket.dirty.compareAndSet(false, true)) {
+            dirty.add(bucket);
+        }
+    }
+
+    private long feeMinor(Long doctorId) {
+        return doctors.getOrDefault(doctorId, DoctorInfo.UNKNOWN).feeMinor();
+    }
+
+    static long toMinor(BigDecimal amount) {
+        return amount == null ? 0 : amount.setScale(CURRENCY_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public enum GroupBy {
+        DAY, DOCTOR, SPECIALTY;
+
+        public static GroupBy parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Unknown grouping '" + value + "'. Use day, doctor or specialty");
+            }
+        }
+    }
+
+    private record DoctorInfo(String name, String specialty, long feeMinor) {
+        static final DoctorInfo UNKNOWN = new DoctorInfo("Unknown", "Unknown", 0);
+
+        static DoctorInfo of(DoctorResponse d) {
+            return new DoctorInfo(d.getFirstName() + " " + d.getLastName(), d.getSpecialty(),
+                    toMinor(d.getConsultationFee()));
+        }
+    }
+
+    /** Days of the live updates applied during one backfill attempt. Compared by identity. */
+    private static final class ChangedDays {
+        private final NavigableSet<LocalDate> dates = new ConcurrentSkipListSet<>();
+
+        boolean within(LocalDate from, LocalDate to) {
+            return !dates.subSet(from, true, to, true).isEmpty();
+        }
+    }
+
+    /** One doctor-day. Counters are independent atomics; flushes may see a change half-applied and catch up next time. */
+    private static final class Bucket {
+        private final Long doctorId;
+        private final LocalDate date;
+        private final AtomicLongArray counts = new AtomicLongArray(AppointmentStatus.values().length);
+        private final AtomicLong revenueMinor = new AtomicLong();
+        private final AtomicBoolean dirty = new AtomicBoolean();
+        private volatile Long rowId;
+
+        Bucket(Long doctorId, LocalDate date) {
+            this.doctorId = doctorId;
+            this.date = date;
+        }
+
+        void add(AppointmentStatus status, long delta) {
+            counts.addAndGet(status.ordinal(), delta);
+        }
+
+        long count(AppointmentStatus status) {
+            return counts.get(status.ordinal());
+        }
+    }
+
+    private static final class Totals {
+        private final String key;
+        private final String label;
+        private final long[] counts = new long[AppointmentStatus.values().length];
+        private long revenueMinor;
+
+        Totals(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+        String key() { return key; }
+        long revenueMinor() { return revenueMinor; }
+
+        void add(Bucket bucket) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += bucket.counts.get(i);
+            }
+            revenueMinor += bucket.revenueMinor.get();
+        }
+
+        AnalyticsPointResponse toResponse() {
+            long booked = Arrays.stream(counts).sum();
+            long cancelled = counts[AppointmentStatus.CANCELLED.ordinal()];
+            long completed = counts[AppointmentStatus.COMPLETED.ordinal()];
+            return AnalyticsPointResponse.builder()
+                    .key(key)
+                    .label(label)
+                    .booked(booked)
+                    .pending(counts[AppointmentStatus.PENDING.ordinal()])
+                    .confirmed(counts[AppointmentStatus.CONFIRMED.ordinal()])
+                    .completed(completed)
+                    .cancelled(cancelled)
+                    .cancellationRate(rate(cancelled, booked))
+                    .completionRate(rate(completed, booked))
+                    .revenue(BigDecimal.valueOf(revenueMinor, CURRENCY_SCALE))
+                    .build();
+        }
+
+        private static double rate(long part, long whole) {
+            return whole == 0 ? 0 : Math.round(part * 10_000.0 / whole) / 10_000.0;
+        }
+    }
+}
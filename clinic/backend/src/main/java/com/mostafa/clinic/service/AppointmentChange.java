@@ -0,0 +1,23 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.entity.Appointment;
+import com.mostafa.clinic.entity.AppointmentStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable snapshot of one committed appointment write. {@code previous} is null when the
+ * appointment was created.
+ */
+public record AppointmentChange(Long appointmentId, Long patientId, Long doctorId, LocalDate date,
+                                AppointmentStatus previous, AppointmentStatus current) {
+
+    static AppointmentChange of(Appointment appointment, AppointmentStatus previous) {
+        return new AppointmentChange(appointment.getId(), appointment.getPatient().getId(),
+                appointment.getDoctor().getId(), appointment.getAppointmentDate(), previous, appointment.getStatus());
+    }
+
+    public boolean isCreation() {
+        return previous == null;
+    }
+}
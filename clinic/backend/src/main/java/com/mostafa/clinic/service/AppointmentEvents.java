@@ -0,0 +1,91 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.entity.Appointment;
+import com.mostafa.clinic.entity.AppointmentStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fans out appointment creations and status transitions to in-memory read models. Changes are
+ * delivered after the surrounding transaction commits, so listeners never see rolled-back writes.
+ */
+@Component
+@Slf4j
+public class AppointmentEvents {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    // changes whose transaction has started committing and whose listeners have not all run yet
+    private final Queue<AppointmentChange> undelivered = new ConcurrentLinkedQueue<>();
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void created(Appointment appointment) {
+        publish(AppointmentChange.of(appointment, null));
+    }
+
+    public void statusChanged(Appointment appointment, AppointmentStatus previous) {
+        publish(AppointmentChange.of(appointment, previous));
+    }
+
+    /**
+     * Whether a change on a day in [from, to] may already be visible in the database but has not
+     * reached the listeners. A reader that rebuilds that range from the tables can only trust the
+     * result while this is false.
+     */
+    public boolean hasUndelivered(LocalDate from, LocalDate to) {
+        return undelivered.stream().anyMatch(c -> !c.date().isBefore(from) && !c.date().isAfter(to));
+    }
+
+    private void publish(AppointmentChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean committing;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                committing = true;
+                undelivered.add(change);
+            }
+
+            @Override
+            public void afterCommit() {
+                deliver(change);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (committing) {
+                    undelivered.remove(change);
+                }
+            }
+        });
+    }
+
+    private void deliver(AppointmentChange change) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onAppointmentChange(change);
+            } catch (RuntimeException e) {
+                // the write is already committed; a broken read model must not surface as a failed request
+                log.error("Appointment listener {} failed for {}", listener.getClass().getSimpleName(), change, e);
+            }
+        }
+    }
+
+    public interface Listener {
+        void onAppointmentChange(AppointmentChange change);
+    }
+}
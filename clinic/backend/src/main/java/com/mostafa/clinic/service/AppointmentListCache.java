@@ -0,0 +1,101 @@
+package com.mostafa.clinic.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mostafa.clinic.dto.response.AppointmentResponse;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Version stamps and cached lists for "my appointments". A user's version moves whenever an
+ * appointment they are patient or doctor on changes and is forgotten once idle, like the list; a
+ * directory epoch moves on any doctor change since doctor names and specialties are part of every row. The stamp doubles as the list's ETag,
+ * so an unchanged poll is answered from memory before any query runs.
+ */
+@Component
+public class AppointmentListCache implements AppointmentEvents.Listener, DoctorEvents.Listener {
+
+    // distinguishes stamps issued before a restart, when every version starts again from zero
+    private final String instance = Long.toString(System.currentTimeMillis(), 36);
+    // versions are values of one global clock, so a user whose version expired and is recreated at
+    // the current clock value can never be handed a stamp issued earlier for a different list
+    private final AtomicLong clock = new AtomicLong();
+    private final Cache<Long, AtomicLong> versions;
+    private final AtomicLong directoryEpoch = new AtomicLong();
+    private final Cache<Long, Rendered> lists;
+    private final AppointmentEvents appointmentEvents;
+    private final DoctorEvents doctorEvents;
+
+    public AppointmentListCache(AppointmentEvents appointmentEvents,
+                                DoctorEvents doctorEvents,
+                                CacheRegistry cacheRegistry,
+                                @Value("${app.cache.appointments.idle-ttl:15m}") Duration idleTtl,
+                                @Value("${app.cache.appointments.max-size:10000}") long maxSize) {
+        this.appointmentEvents = appointmentEvents;
+        this.doctorEvents = doctorEvents;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleTtl)
+                .build();
+        this.lists = cacheRegistry.register("appointments.my", Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleTtl)
+                .recordStats()
+                .<Long, Rendered>build());
+    }
+
+    @PostConstruct
+    void registerForChanges() {
+        appointmentEvents.addListener(this);
+        doctorEvents.addListener(this);
+    }
+
+    /** Strong ETag for the user's current list. */
+    public String etag(Long userId) {
+        return "\"" + stamp(userId) + "\"";
+    }
+
+    /**
+     * The user's list, rendered by the loader only when the cached copy is older than the current
+     * stamp. The stamp is read before loading, so a list can be newer than its stamp but never older.
+     */
+    public List<AppointmentResponse> list(Long userId, Supplier<List<AppointmentResponse>> loader) {
+        String stamp = stamp(userId);
+        Rendered cached = lists.getIfPresent(userId);
+        if (cached != null && cached.stamp().equals(stamp)) {
+            return cached.items();
+        }
+        List<AppointmentResponse> items = List.copyOf(loader.get());
+        lists.put(userId, new Rendered(stamp, items));
+        return items;
+    }
+
+    @Override
+    public void onAppointmentChange(AppointmentChange change) {
+        bump(change.patientId());
+        bump(change.doctorId());
+    }
+
+    @Override
+    public void onDoctorChange(DoctorChange change) {
+        directoryEpoch.incrementAndGet();
+    }
+
+    private void bump(Long userId) {
+        long now = clock.incrementAndGet();
+        versions.get(userId, id -> new AtomicLong(now - 1)).accumulateAndGet(now, Math::max);
+    }
+
+    private String stamp(Long userId) {
+        long version = versions.get(userId, id -> new AtomicLong(clock.get())).get();
+        return instance + "-" + directoryEpoch.get() + "-" + version;
+    }
+
+    private record Rendered(String stamp, List<AppointmentResponse> items) {}
+}
@@ -1,49 +1,59 @@
 package com.mostafa.clinic.service;
 
 import com.mostafa.clinic.dto.request.AppointmentRequest;
+import com.mostafa.clinic.dto.request.RecurringAppointmentRequest;
 import com.mostafa.clinic.dto.response.AppointmentResponse;
+import com.mostafa.clinic.dto.response.OccurrenceResult;
+import com.mostafa.clinic.dto.response.RecurringBookingResponse;
 import com.mostafa.clinic.entity.*;
 import com.mostafa.clinic.exception.BusinessException;
 import com.mostafa.clinic.exception.ResourceNotFoundException;
+import com.mostafa.clinic.exception.SlotConflictException;
 import com.mostafa.clinic.repository.AppointmentRepository;
 import com.mostafa.clinic.repository.DoctorProfileRepository;
 import com.mostafa.clinic.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(value = "clinic.appointments", description = "Appointment service operations", histogram = true)
 public class AppointmentService {
 
+    private static final String SLOT_TAKEN_MESSAGE = "This time slot is already booked. Please choose another time.";
+
     private final AppointmentRepository appointmentRepository;
     private final UserRepository userRepository;
     private final DoctorProfileRepository doctorProfileRepository;
     private final EmailService emailService;
+    private final BookingLedger bookingLedger;
+    private final DoctorSlotLocks doctorSlotLocks;
+    private final WaitlistService waitlistService;
+    private final AppointmentEvents appointmentEvents;
+    private final AppointmentListCache appointmentListCache;
 
     public AppointmentResponse bookAppointment(Long patientId, AppointmentRequest request) {
         User patient = userRepository.findById(patientId)
                 .orElseThrow(() -> new ResourceNotFoundException("Patient not found"));
+        User doctor = requireBookableDoctor(request.getDoctorId());
+        int duration = resolveDuration(request.getAppointmentTime(), request.getDurationMinutes());
 
-        User doctor = userRepository.findById(request.getDoctorId())
-                .filter(u -> u.getRole() == Role.DOCTOR)
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found"));
-
-        DoctorProfile profile = doctorProfileRepository.findByUserId(doctor.getId())
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
-
-        if (!profile.isAvailable()) {
-            throw new BusinessException("This doctor is currently not accepting appointments");
-        }
-
-        boolean slotTaken = appointmentRepository.existsByDoctorIdAndAppointmentDateAndAppointmentTimeAndStatusNot(
-                doctor.getId(), request.getAppointmentDate(), request.getAppointmentTime(), AppointmentStatus.CANCELLED);
+        // Held until commit/rollback so check-then-insert is atomic per doctor
+        doctorSlotLocks.lockForTransaction(doctor.getId());
 
-        if (slotTaken) {
-            throw new BusinessException("This time slot is already booked. Please choose another time.");
+        if (!bookingLedger.isFree(doctor.getId(), request.getAppointmentDate(), request.getAppointmentTime(), duration)) {
+            throw new SlotConflictException(SLOT_TAKEN_MESSAGE);
         }
 
         Appointment appointment = Appointment.builder()
@@ -51,15 +61,101 @@ public class AppointmentService {
                 .doctor(doctor)
                 .appointmentDate(request.getAppointmentDate())
                 .appointmentTime(request.getAppointmentTime())
+                .durationMinutes(duration)
                 .patientNotes(request.getPatientNotes())
                 .status(AppointmentStatus.PENDING)
                 .build();
 
-        appointment = appointmentRepository.save(appointment);
+        try {
+            appointment = appointmentRepository.saveAndFlush(appointment);
+        } catch (DataIntegrityViolationException e) {
+            // uk_appointments_active_slot: another instance took the same start time
+            throw new SlotConflictException(SLOT_TAKEN_MESSAGE);
+        }
+        bookingLedger.apply(appointment);
+        appointmentEvents.created(appointment);
         emailService.sendAppointmentBooked(appointment);
         return mapToResponse(appointment);
     }
 
+    /**
+     * Books a daily or weekly series in one transaction. Every occurrence is checked against the
+     * ledger first; the free ones are then inserted together so Hibernate can send them as JDBC
+     * batches. In all-or-nothing mode a single conflict books nothing.
+     */
+    public RecurringBookingResponse bookRecurring(Long patientId, RecurringAppointmentRequest request) {
+        User patient = userRepository.findById(patientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found"));
+        User doctor = requireBookableDoctor(request.getDoctorId());
+        int duration = resolveDuration(request.getAppointmentTime(), request.getDurationMinutes());
+
+        List<LocalDate> dates = new ArrayList<>(request.getOccurrences());
+        for (int i = 0; i < request.getOccurrences(); i++) {
+            long step = (long) i * request.getInterval();
+            dates.add(request.getFrequency() == RecurringAppointmentRequest.Frequency.DAILY
+                    ? request.getStartDate().plusDays(step)
+                    : request.getStartDate().plusWeeks(step));
+        }
+
+        doctorSlotLocks.lockForTransaction(doctor.getId());
+        bookingLedger.preload(List.of(doctor.getId()), dates.get(0), dates.get(dates.size() - 1));
+
+        List<OccurrenceResult> results = new ArrayList<>(dates.size());
+        List<Appointment> toInsert = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            boolean free = bookingLedger.isFree(doctor.getId(), date, request.getAppointmentTime(), duration);
+            results.add(OccurrenceResult.builder()
+                    .date(date)
+                    .time(request.getAppointmentTime())
+                    .booked(free)
+                    .reason(free ? null : SLOT_TAKEN_MESSAGE)
+                    .build());
+            if (free) {
+                toInsert.add(Appointment.builder()
+                        .patient(patient)
+                        .doctor(doctor)
+                        .appointmentDate(date)
+                        .appointmentTime(request.getAppointmentTime())
+                        .durationMinutes(duration)
+                        .patientNotes(request.getPatientNotes())
+                        .status(AppointmentStatus.PENDING)
+                        .build());
+            }
+        }
+
+        if (request.isAllOrNothing() && toInsert.size() < dates.size()) {
+            results.forEach(r -> {
+                if (r.isBooked()) {
+                    r.setBooked(false);
+                    r.setReason("Not booked: another occurrence in the series is unavailable");
+                }
+            });
+            return RecurringBookingResponse.builder()
+                    .requested(dates.size()).booked(0).occurrences(results).build();
+        }
+
+        List<Appointment> saved;
+        try {
+            saved = appointmentRepository.saveAll(toInsert);
+            appointmentRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            throw new SlotConflictException(SLOT_TAKEN_MESSAGE);
+        }
+
+        Iterator<Appointment> it = saved.iterator();
+        for (OccurrenceResult result : results) {
+            if (result.isBooked()) {
+                Appointment appointment = it.next();
+                bookingLedger.apply(appointment);
+                appointmentEvents.created(appointment);
+                emailService.sendAppointmentBooked(appointment);
+                result.setAppointment(mapToResponse(appointment));
+            }
+        }
+        return RecurringBookingResponse.builder()
+                .requested(dates.size()).booked(saved.size()).occurrences(results).build();
+    }
+
     public AppointmentResponse confirmAppointment(Long doctorId, Long appointmentId) {
         Appointment appointment = getAppointmentForDoctor(doctorId, appointmentId);
 
@@ -69,6 +165,8 @@ public class AppointmentService {
 
         appointment.setStatus(AppointmentStatus.CONFIRMED);
         appointment = appointmentRepository.save(appointment);
+        bookingLedger.apply(appointment);
+        appointmentEvents.statusChanged(appointment, AppointmentStatus.PENDING);
         emailService.sendAppointmentConfirmation(appointment);
         return mapToResponse(appointment);
     }
@@ -80,9 +178,15 @@ public class AppointmentService {
             throw new BusinessException("Only PENDING appointments can be rejected");
         }
 
+        // the slot is released in the ledger before commit; a booking that saw it free while this
+        // could still roll back would be double-booked when the rollback re-occupies it
+        doctorSlotLocks.lockForTransaction(doctorId);
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointment.setDoctorNotes(doctorNotes);
         appointment = appointmentRepository.save(appointment);
+        bookingLedger.apply(appointment);
+        appointmentEvents.statusChanged(appointment, AppointmentStatus.PENDING);
+        waitlistService.promoteAfterCommit(appointment);
         emailService.sendAppointmentCancellation(appointment, "the doctor");
         return mapToResponse(appointment);
     }
@@ -97,6 +201,8 @@ public class AppointmentService {
         appointment.setStatus(AppointmentStatus.COMPLETED);
         appointment.setDoctorNotes(doctorNotes);
         appointment = appointmentRepository.save(appointment);
+        bookingLedger.apply(appointment);
+        appointmentEvents.statusChanged(appointment, AppointmentStatus.CONFIRMED);
         return mapToResponse(appointment);
     }
 
@@ -115,22 +221,62 @@ public class AppointmentService {
             throw new BusinessException("This appointment cannot be cancelled");
         }
 
+        // as in rejectAppointment: no booking may see the released slot until this completes
+        doctorSlotLocks.lockForTransaction(appointment.getDoctor().getId());
+        AppointmentStatus previous = appointment.getStatus();
         appointment.setStatus(AppointmentStatus.CANCELLED);
         appointment = appointmentRepository.save(appointment);
+        bookingLedger.apply(appointment);
+        appointmentEvents.statusChanged(appointment, previous);
+        waitlistService.promoteAfterCommit(appointment);
         emailService.sendAppointmentCancellation(appointment, isPatient ? "the patient" : "the doctor");
         return mapToResponse(appointment);
     }
 
+    /** ETag of the list {@link #getMyAppointments} would return; answered from memory. */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String getMyAppointmentsTag(Long userId) {
+        return appointmentListCache.etag(userId);
+    }
+
+    /** Patients get their own appointments, doctors the ones assigned to them; cached per user. */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<AppointmentResponse> getMyAppointments(User user) {
+        return appointmentListCache.list(user.getId(), () -> user.getRole() == Role.DOCTOR
+                ? getDoctorAppointments(user.getId())
+                : getPatientAppointments(user.getId()));
+    }
+
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getPatientAppointments(Long patientId) {
-        return appointmentRepository.findByPatientIdOrderByAppointmentDateDescAppointmentTimeDesc(patientId)
-                .stream().map(this::mapToResponse).toList();
+        return appointmentRepository.findResponsesByPatientId(patientId);
     }
 
     @Transactional(readOnly = true)
     public List<AppointmentResponse> getDoctorAppointments(Long doctorId) {
-        return appointmentRepository.findByDoctorIdOrderByAppointmentDateAscAppointmentTimeAsc(doctorId)
-                .stream().map(this::mapToResponse).toList();
+        return appointmentRepository.findResponsesByDoctorId(doctorId);
+    }
+
+    private User requireBookableDoctor(Long doctorId) {
+        User doctor = userRepository.findById(doctorId)
+                .filter(u -> u.getRole() == Role.DOCTOR)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found"));
+
+        DoctorProfile profile = doctorProfileRepository.findByUserId(doctor.getId())
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor profile not found"));
+
+        if (!profile.isAvailable()) {
+            throw new BusinessException("This doctor is currently not accepting appointments");
+        }
+        return doctor;
+    }
+
+    private int resolveDuration(LocalTime start, Integer requested) {
+        int duration = requested != null ? requested : Appointment.DEFAULT_DURATION_MINUTES;
+        if (start.toSecondOfDay() / 60 + duration > 24 * 60) {
+            throw new BusinessException("Appointment must end on the same day");
+        }
+        return duration;
     }
 
     private Appointment getAppointmentForDoctor(Long doctorId, Long appointmentId) {
@@ -142,8 +288,10 @@ public class AppointmentService {
         return appointment;
     }
 
+    /** Maps a single managed appointment; lists go through the repository projections instead. */
     public AppointmentResponse mapToResponse(Appointment a) {
-        DoctorProfile profile = doctorProfileRepository.findByUserId(a.getDoctor().getId()).orElse(null);
+        // mappedBy one-to-one is loaded together with the doctor, so this costs no extra query
+        DoctorProfile profile = a.getDoctor().getDoctorProfile();
         return AppointmentResponse.builder()
                 .id(a.getId())
                 .patientId(a.getPatient().getId())
@@ -155,6 +303,7 @@ public class AppointmentService {
                 .specialty(profile != null ? profile.getSpecialty() : null)
                 .appointmentDate(a.getAppointmentDate())
                 .appointmentTime(a.getAppointmentTime())
+                .durationMinutes(a.getDurationMinutes())
                 .status(a.getStatus())
                 .patientNotes(a.getPatientNotes())
                 .doctorNotes(a.getDoctorNotes())
@@ -10,13 +10,13 @@ import com.mostafa.clinic.exception.BusinessException;
 import com.mostafa.clinic.repository.DoctorProfileRepository;
 import com.mostafa.clinic.repository.UserRepository;
 import com.mostafa.clinic.security.JwtService;
+import com.mostafa.clinic.security.PasswordHasher;
+import com.mostafa.clinic.security.VerifiedToken;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -24,14 +24,17 @@ import java.math.BigDecimal;
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Timed(value = "clinic.auth", description = "Registration, login and logout", histogram = true)
 @Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
     private final DoctorProfileRepository doctorProfileRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
+    private final ClinicStatistics clinicStatistics;
+    private final DoctorEvents doctorEvents;
+    private final TokenRevocationRegistry tokenRevocationRegistry;
 
     public AuthResponse register(RegisterRequest request) {
         log.info("📝 Register attempt for email: {} as role: {}", request.getEmail(), request.getRole());
@@ -55,7 +58,7 @@ public class AuthService {
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHasher.encode(request.getPassword()))
                 .phone(request.getPhone())
                 .role(request.getRole())
                 .build();
@@ -75,50 +78,57 @@ public class AuthService {
                     .workingHours(request.getWorkingHours() != null ? request.getWorkingHours() : "09:00-17:00")
                     .build();
             doctorProfileRepository.save(profile);
+            doctorEvents.changed(user, profile);
             log.info("✅ Doctor profile created for user: {}", user.getEmail());
         }
 
+        clinicStatistics.userRegistered(user.getRole());
         String token = jwtService.generateToken(user);
         log.info("✅ Registration successful for user: {} with role: {}", user.getEmail(), user.getRole());
         return buildAuthResponse(user, token);
     }
 
+    /**
+     * One user lookup and one bounded BCrypt check. Runs without a transaction so no connection
+     * is held while the password is being hashed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public AuthResponse login(LoginRequest request) {
         String email = request.getEmail();
-        
-        log.info("🔐 Login attempt for email: {}", email);
-        
-        // First check if user exists in database
-        boolean userExists = userRepository.existsByEmail(email);
-        if (!userExists) {
-            log.warn("❌ User not found in database: {}", email);
+        log.debug("🔐 Login attempt for email: {}", email);
+
+        User user = userRepository.findByEmail(email).orElse(null);
+        // an unknown email still costs one hash, so response time does not reveal which accounts exist
+        PasswordHasher.Verification check = passwordHasher.verify(request.getPassword(),
+                user != null ? user.getPassword() : null);
+        if (!check.matches()) {
+            log.warn("❌ Authentication failed for {}", email);
             throw new BusinessException("Invalid email or password");
         }
-        
-        log.info("✅ User found in database: {}", email);
-        
-        try {
-            log.debug("🔑 Attempting authentication with UsernamePasswordAuthenticationToken...");
-            var auth = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(email, request.getPassword()));
-            log.info("✅ Authentication successful for user: {}", email);
-        } catch (BadCredentialsException e) {
-            log.warn("❌ Authentication failed for {}: {}", email, e.getMessage());
-            throw new BusinessException("Invalid email or password");
-        } catch (Exception e) {
-            log.error("❌ Unexpected authentication error: {}", e.getMessage(), e);
-            throw new BusinessException("Authentication failed: " + e.getMessage());
+        if (!user.isEnabled()) {
+            log.warn("❌ Login refused for disabled account: {}", email);
+            throw new BusinessException("Account is disabled");
+        }
+        if (check.upgradedHash() != null) {
+            userRepository.updatePassword(user.getId(), check.upgradedHash());
+            log.info("🔑 Rehashed password for user {} with the current encoder settings", user.getId());
         }
 
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new BusinessException("User not found"));
-
-        log.info("✅ Generating JWT token for user: {}", email);
         String token = jwtService.generateToken(user);
         log.info("✅ Login successful for user: {} with role: {}", email, user.getRole());
         return buildAuthResponse(user, token);
     }
 
+    /** Revokes the presented token; an invalid or already expired token needs no revoking. */
+    public void logout(String bearerToken) {
+        VerifiedToken token = jwtService.verify(bearerToken);
+        if (token == null || token.tokenId() == null || !token.isSelfContained()) {
+            return;
+        }
+        tokenRevocationRegistry.revoke(token.userId(), token.tokenId(), token.expiresAt());
+        log.info("👋 Logout for user: {}", token.subject());
+    }
+
     private AuthResponse buildAuthResponse(User user, String token) {
         return AuthResponse.builder()
                 .token(token)
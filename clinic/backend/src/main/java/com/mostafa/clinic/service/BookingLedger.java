@@ -0,0 +1,268 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.entity.Appointment;
+import com.mostafa.clinic.repository.AppointmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory view of the time each doctor has booked, one sorted interval list per day.
+ * A day is loaded from the database the first time it is touched and is then kept current
+ * by {@link #apply(Appointment)} on every status change, so overlap checks on the booking
+ * path never need a query. Changes made inside a transaction are undone if it rolls back.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingLedger {
+
+    static final int MAX_DURATION_MINUTES = 480;
+
+    private final AppointmentRepository appointmentRepository;
+    private final ConcurrentMap<DayKey, DayLedger> days = new ConcurrentHashMap<>();
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public boolean isFree(Long doctorId, LocalDate date, LocalTime start, int durationMinutes) {
+        int from = minuteOfDay(start);
+        return day(doctorId, date).isFree(from, from + durationMinutes);
+    }
+
+    /**
+     * Records the current state of an appointment: it occupies its interval while its status
+     * holds the slot and is released otherwise. Safe to call repeatedly for the same appointment.
+     */
+    public void apply(Appointment appointment) {
+        Long doctorId = appointment.getDoctor().getId();
+        LocalDate date = appointment.getAppointmentDate();
+        DayLedger ledger = day(doctorId, date);
+        long id = appointment.getId();
+        int from = minuteOfDay(appointment.getAppointmentTime());
+        int to = from + appointment.getDurationMinutes();
+
+        if (appointment.getStatus().holdsSlot()) {
+            if (occupy(doctorId, date, ledger, id, from, to)) {
+                TransactionCallbacks.onRollback(() -> release(doctorId, date, ledger, id, from, to));
+            }
+        } else if (release(doctorId, date, ledger, id, from, to)) {
+            TransactionCallbacks.onRollback(() -> occupy(doctorId, date, ledger, id, from, to));
+        }
+    }
+
+    /** Registers a callback for every interval that becomes occupied or free. */
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Loads every day in [from, to] for the given doctors that is not in memory yet, using a single
+     * query. Days already present are left untouched since they may hold in-flight reservations.
+     */
+    public void preload(Collection<Long> doctorIds, LocalDate from, LocalDate to) {
+        Map<DayKey, DayLedger> missing = new HashMap<>();
+        for (Long doctorId : doctorIds) {
+            for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+                DayKey key = new DayKey(doctorId, d);
+                if (!days.containsKey(key)) {
+                    missing.put(key, new DayLedger());
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        evictPastDays();
+        for (Appointment a : appointmentRepository.findByDoctorIdInAndAppointmentDateBetween(doctorIds, from, to)) {
+            DayLedger ledger = missing.get(new DayKey(a.getDoctor().getId(), a.getAppointmentDate()));
+            if (ledger != null && a.getStatus().holdsSlot()) {
+                int start = minuteOfDay(a.getAppointmentTime());
+                ledger.put(a.getId(), start, start + a.getDurationMinutes());
+            }
+        }
+        missing.forEach(days::putIfAbsent);
+        log.debug("Preloaded {} booking ledger days for {} doctors", missing.size(), doctorIds.size());
+    }
+
+    private boolean occupy(Long doctorId, LocalDate date, DayLedger ledger, long id, int from, int to) {
+        if (!ledger.put(id, from, to)) {
+            return false;
+        }
+        listeners.forEach(l -> l.onChange(doctorId, date, from, to, true));
+        return true;
+    }
+
+    private boolean release(Long doctorId, LocalDate date, DayLedger ledger, long id, int from, int to) {
+        if (!ledger.remove(id)) {
+            return false;
+        }
+        listeners.forEach(l -> l.onChange(doctorId, date, from, to, false));
+        return true;
+    }
+
+    private DayLedger day(Long doctorId, LocalDate date) {
+        DayKey key = new DayKey(doctorId, date);
+        DayLedger ledger = days.get(key);
+        if (ledger != null) {
+            return ledger;
+        }
+        evictPastDays();
+        // Loaded outside computeIfAbsent: the map's bin lock is a monitor, and holding it across
+        // a JDBC call would pin a virtual thread's carrier. A racing loader simply loses.
+        DayLedger loaded = load(key);
+        DayLedger existing = days.putIfAbsent(key, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private DayLedger load(DayKey key) {
+        DayLedger ledger = new DayLedger();
+        for (Appointment a : appointmentRepository.findByDoctorIdAndAppointmentDate(key.doctorId(), key.date())) {
+            if (a.getStatus().holdsSlot()) {
+                int from = minuteOfDay(a.getAppointmentTime());
+                ledger.put(a.getId(), from, from + a.getDurationMinutes());
+            }
+        }
+        log.debug("Loaded booking ledger for doctor {} on {}", key.doctorId(), key.date());
+        return ledger;
+    }
+
+    private void evictPastDays() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(k -> k.date().isBefore(today));
+    }
+
+    static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    record DayKey(Long doctorId, LocalDate date) {}
+
+    public interface Listener {
+        /** Called after [fromMinute, toMinute) of the doctor's day became occupied or free. */
+        void onChange(Long doctorId, LocalDate date, int fromMinute, int toMinute, boolean occupied);
+    }
+
+    /**
+     * Booked intervals of one doctor on one day as parallel arrays sorted by start minute.
+     * Intervals are half-open: [start, end). Guarded by a ReentrantLock rather than a monitor so
+     * contended access parks virtual threads instead of pinning their carriers.
+     */
+    static final class DayLedger {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private int size;
+        private int[] starts = new int[8];
+        private int[] ends = new int[8];
+        private long[] ids = new long[8];
+
+        boolean isFree(int from, int to) {
+            lock.lock();
+            try {
+                return isFreeLocked(from, to);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isFreeLocked(int from, int to) {
+            // Only intervals starting before 'to' can overlap; none of them can start earlier
+            // than from - MAX_DURATION_MINUTES and still reach past 'from'.
+            for (int i = lowerBound(to) - 1; i >= 0 && starts[i] > from - MAX_DURATION_MINUTES; i--) {
+                if (ends[i] > from) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Adds or moves the interval for an appointment; returns false if it was already recorded as given. */
+        boolean put(long id, int from, int to) {
+            lock.lock();
+            try {
+                return putLocked(id, from, to);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean putLocked(long id, int from, int to) {
+            int existing = indexOf(id);
+            if (existing >= 0) {
+                if (starts[existing] == from && ends[existing] == to) {
+                    return false;
+                }
+                removeAt(existing);
+            }
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            int at = lowerBound(from);
+            System.arraycopy(starts, at, starts, at + 1, size - at);
+            System.arraycopy(ends, at, ends, at + 1, size - at);
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            starts[at] = from;
+            ends[at] = to;
+            ids[at] = id;
+            size++;
+            return true;
+        }
+
+        boolean remove(long id) {
+            lock.lock();
+            try {
+                return removeLocked(id);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean removeLocked(long id) {
+            int at = indexOf(id);
+            if (at < 0) {
+                return false;
+            }
+            removeAt(at);
+            return true;
+        }
+
+        private void removeAt(int at) {
+            System.arraycopy(starts, at + 1, starts, at, size - at - 1);
+            System.arraycopy(ends, at + 1, ends, at, size - at - 1);
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            size--;
+        }
+
+        private int indexOf(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /** First index whose start is >= minute. */
+        private int lowerBound(int minute) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < minute) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.mostafa.clinic.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mostafa.clinic.dto.response.CacheStatsResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/** Names the application's in-process caches so their statistics can be reported in one place. */
+@Component
+public class CacheRegistry {
+
+    private final Map<String, Cache<?, ?>> caches = new ConcurrentSkipListMap<>();
+
+    public <C extends Cache<?, ?>> C register(String name, C cache) {
+        caches.put(name, cache);
+        return cache;
+    }
+
+    public Map<String, Cache<?, ?>> caches() {
+        return Map.copyOf(caches);
+    }
+
+    public List<CacheStatsResponse> snapshot() {
+        return caches.entrySet().stream().map(e -> {
+            CacheStats stats = e.getValue().stats();
+            return CacheStatsResponse.builder()
+                    .name(e.getKey())
+                    .size(e.getValue().estimatedSize())
+                    .hits(stats.hitCount())
+                    .misses(stats.missCount())
+                    .hitRate(stats.hitRate())
+                    .evictions(stats.evictionCount())
+                    .loadFailures(stats.loadFailureCount())
+                    .averageLoadMillis(stats.averageLoadPenalty() / 1_000_000.0)
+                    .build();
+        }).toList();
+    }
+}
@@ -0,0 +1,97 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.entity.AppointmentStatus;
+import com.mostafa.clinic.entity.OutboxStatus;
+import com.mostafa.clinic.exception.BusinessException;
+import com.mostafa.clinic.repository.OutboxNotificationRepository;
+import com.mostafa.clinic.security.PasswordHasher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.regex.Pattern;
+
+/**
+ * Application meters that Spring Boot does not provide on its own: appointment status transitions,
+ * rejected business requests by reason, the notification outbox backlog, the password hashing
+ * pool and the in-process caches. HTTP, Hikari, JVM and task executor meters come from Actuator.
+ */
+@Component
+@RequiredArgsConstructor
+public class ClinicMetrics implements AppointmentEvents.Listener {
+
+    static final String BUSINESS_ERRORS = "clinic.business.errors";
+
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final String NEW = "NEW";
+
+    private final MeterRegistry registry;
+    private final AppointmentEvents appointmentEvents;
+    private final OutboxNotificationRepository outboxRepository;
+    private final PasswordHasher passwordHasher;
+    private final CacheRegistry cacheRegistry;
+
+    /** transitions[from + 1][to]; row 0 counts creations. */
+    private Counter[][] transitions;
+
+    @PostConstruct
+    void register() {
+        AppointmentStatus[] statuses = AppointmentStatus.values();
+        transitions = new Counter[statuses.length + 1][statuses.length];
+        for (int from = 0; from <= statuses.length; from++) {
+            for (AppointmentStatus to : statuses) {
+                transitions[from][to.ordinal()] = Counter.builder("clinic.appointments.transitions")
+                        .description("Committed appointment creations and status changes")
+                        .tag("from", from == 0 ? NEW : statuses[from - 1].name())
+                        .tag("to", to.name())
+                        .register(registry);
+            }
+        }
+        appointmentEvents.addListener(this);
+
+        // one COUNT per scrape; the dispatcher's (status, next_attempt_at) index covers it
+        Gauge.builder("clinic.notifications.outbox.pending", outboxRepository,
+                        r -> r.countByStatus(OutboxStatus.PENDING))
+                .description("Notifications waiting in the outbox")
+                .register(registry);
+        new ExecutorServiceMetrics(passwordHasher.executor(), "password.hash", Tags.empty()).bindTo(registry);
+    }
+
+    /** Caches register themselves while the context starts, so they are bound once it is ready. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bindCaches() {
+        cacheRegistry.caches().forEach((name, cache) -> CaffeineCacheMetrics.monitor(registry, cache, name));
+    }
+
+    @Override
+    public void onAppointmentChange(AppointmentChange change) {
+        int from = change.previous() == null ? 0 : change.previous().ordinal() + 1;
+        transitions[from][change.current().ordinal()].increment();
+    }
+
+    /**
+     * Counts a rejected request by exception type and reason. The reason is the message up to its
+     * first colon with numbers masked, which keeps ids, emails and times out of the tag values.
+     */
+    public void businessError(BusinessException e) {
+        registry.counter(BUSINESS_ERRORS, "type", e.getClass().getSimpleName(), "reason", reason(e.getMessage()))
+                .increment();
+    }
+
+    static String reason(String message) {
+        if (message == null || message.isBlank()) {
+            return "unknown";
+        }
+        int colon = message.indexOf(':');
+        String head = colon > 0 ? message.substring(0, colon) : message;
+        return DIGITS.matcher(head.trim()).replaceAll("#");
+    }
+}
@@ -0,0 +1,116 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.dto.response.AdminStatsResponse;
+import com.mostafa.clinic.entity.AppointmentStatus;
+import com.mostafa.clinic.entity.Role;
+import com.mostafa.clinic.repository.AppointmentRepository;
+import com.mostafa.clinic.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Dashboard counters kept in memory. They move with every committed registration and appointment
+ * change and are reconciled against the database on startup and periodically, which also corrects
+ * anything written behind the application's back (seed data, manual SQL).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClinicStatistics implements AppointmentEvents.Listener {
+
+    private final UserRepository userRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final AppointmentEvents appointmentEvents;
+
+    private final Map<Role, LongAdder> usersByRole = counters(Role.class);
+    private final Map<AppointmentStatus, LongAdder> appointmentsByStatus = counters(AppointmentStatus.class);
+    private final LongAdder appointments = new LongAdder();
+
+    @PostConstruct
+    void registerForChanges() {
+        appointmentEvents.addListener(this);
+    }
+
+    public AdminStatsResponse snapshot() {
+        return AdminStatsResponse.builder()
+                .totalPatients(usersByRole.get(Role.PATIENT).sum())
+                .totalDoctors(usersByRole.get(Role.DOCTOR).sum())
+                .totalAppointments(appointments.sum())
+                .pendingAppointments(appointmentsByStatus.get(AppointmentStatus.PENDING).sum())
+                .confirmedAppointments(appointmentsByStatus.get(AppointmentStatus.CONFIRMED).sum())
+                .completedAppointments(appointmentsByStatus.get(AppointmentStatus.COMPLETED).sum())
+                .cancelledAppointments(appointmentsByStatus.get(AppointmentStatus.CANCELLED).sum())
+                .build();
+    }
+
+    public void userRegistered(Role role) {
+        TransactionCallbacks.afterCommit(() -> usersByRole.get(role).increment());
+    }
+
+    @Override
+    public void onAppointmentChange(AppointmentChange change) {
+        if (change.isCreation()) {
+            appointments.increment();
+        } else {
+            appointmentsByStatus.get(change.previous()).decrement();
+        }
+        appointmentsByStatus.get(change.current()).increment();
+    }
+
+    /**
+     * Replaces the counters with the database totals (two GROUP BY queries). A change committing
+     * while the counts run can be off by one until the next pass.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.stats.reconcile-ms:300000}", fixedDelayString = "${app.stats.reconcile-ms:300000}")
+    @Transactional(readOnly = true)
+    public void reconcile() {
+        Map<Role, Long> roles = new EnumMap<>(Role.class);
+        for (Object[] row : userRepository.countGroupByRole()) {
+            roles.put((Role) row[0], (Long) row[1]);
+        }
+        Map<AppointmentStatus, Long> statuses = new EnumMap<>(AppointmentStatus.class);
+        for (Object[] row : appointmentRepository.countGroupByStatus()) {
+            statuses.put((AppointmentStatus) row[0], (Long) row[1]);
+        }
+
+        long drift = 0;
+        for (Role role : Role.values()) {
+            drift += adjust(usersByRole.get(role), roles.getOrDefault(role, 0L));
+        }
+        long total = 0;
+        for (AppointmentStatus status : AppointmentStatus.values()) {
+            long count = statuses.getOrDefault(status, 0L);
+            total += count;
+            drift += adjust(appointmentsByStatus.get(status), count);
+        }
+        drift += adjust(appointments, total);
+        if (drift != 0) {
+            log.info("📊 Reconciled dashboard counters, corrected drift of {}", drift);
+        }
+    }
+
+    private static long adjust(LongAdder counter, long actual) {
+        long delta = actual - counter.sum();
+        counter.add(delta);
+        return Math.abs(delta);
+    }
+
+    private static <E extends Enum<E>> Map<E, LongAdder> counters(Class<E> type) {
+        Map<E, LongAdder> map = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            map.put(value, new LongAdder());
+        }
+        return map;
+    }
+}
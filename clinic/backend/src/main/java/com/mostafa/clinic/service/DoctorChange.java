@@ -0,0 +1,25 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.dto.response.DoctorResponse;
+import com.mostafa.clinic.entity.DoctorProfile;
+import com.mostafa.clinic.entity.User;
+
+import java.math.BigDecimal;
+
+/** Immutable snapshot of a doctor's account and profile as committed. */
+public record DoctorChange(Long doctorId, String firstName, String lastName, String email, String phone,
+                           String specialty, String bio, int experienceYears, BigDecimal consultationFee,
+                           String workingDays, String workingHours, boolean available, boolean active) {
+
+    static DoctorChange of(User doctor, DoctorProfile profile) {
+        return new DoctorChange(doctor.getId(), doctor.getFirstName(), doctor.getLastName(),
+                doctor.getEmail(), doctor.getPhone(), profile.getSpecialty(), profile.getBio(),
+                profile.getExperienceYears(), profile.getConsultationFee(), profile.getWorkingDays(),
+                profile.getWorkingHours(), profile.isAvailable(), doctor.isActive());
+    }
+
+    public DoctorResponse toResponse() {
+        return new DoctorResponse(doctorId, firstName, lastName, email, phone, specialty, bio,
+                experienceYears, consultationFee, workingDays, workingHours, available);
+    }
+}
@@ -0,0 +1,93 @@
+package com.mostafa.clinic.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mostafa.clinic.dto.response.DoctorResponse;
+import com.mostafa.clinic.repository.DoctorProfileRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Cached doctor directory: single doctors by id and the two public lists. Concurrent misses for
+ * the same key share one load. Loads run on the small cache-load pool and callers wait on the
+ * future, so no thread holds a cache lock during the query (a virtual thread would pin its carrier).
+ * Entries are dropped as soon as {@link DoctorEvents} reports a change to that doctor; the TTL
+ * only bounds staleness from writes made outside the application.
+ */
+@Component
+public class DoctorDirectoryCache implements DoctorEvents.Listener {
+
+    private enum ListKey { ALL, AVAILABLE }
+
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final DoctorEvents doctorEvents;
+    private final AsyncCache<Long, DoctorResponse> byId;
+    private final AsyncCache<ListKey, List<DoctorResponse>> lists;
+
+    public DoctorDirectoryCache(DoctorProfileRepository doctorProfileRepository,
+                                DoctorEvents doctorEvents,
+                                CacheRegistry cacheRegistry,
+                                @Qualifier("cacheLoadExecutor") Executor executor,
+                                @Value("${app.cache.doctors.ttl:10m}") Duration ttl,
+                                @Value("${app.cache.doctors.max-size:10000}") long maxSize) {
+        this.doctorProfileRepository = doctorProfileRepository;
+        this.doctorEvents = doctorEvents;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .executor(executor)
+                .recordStats()
+                .buildAsync();
+        this.lists = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .executor(executor)
+                .recordStats()
+                .buildAsync();
+        cacheRegistry.register("doctors.byId", byId.synchronous());
+        cacheRegistry.register("doctors.lists", lists.synchronous());
+    }
+
+    @PostConstruct
+    void registerForChanges() {
+        doctorEvents.addListener(this);
+    }
+
+    /** The doctor, or null if there is no doctor with that id (absence is not cached). */
+    public DoctorResponse get(Long doctorId) {
+        return join(byId.get(doctorId, id -> doctorProfileRepository.findResponseByUserId(id).orElse(null)));
+    }
+
+    public List<DoctorResponse> all() {
+        return join(lists.get(ListKey.ALL, k -> List.copyOf(doctorProfileRepository.findAllResponses())));
+    }
+
+    public List<DoctorResponse> available() {
+        return join(lists.get(ListKey.AVAILABLE, k -> List.copyOf(doctorProfileRepository.findAvailableResponses())));
+    }
+
+    @Override
+    public void onDoctorChange(DoctorChange change) {
+        byId.synchronous().invalidate(change.doctorId());
+        // every change can alter either list: membership, availability or the row itself
+        lists.synchronous().invalidateAll();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.entity.DoctorProfile;
+import com.mostafa.clinic.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fans out doctor registrations and profile, availability and activation changes to in-memory
+ * read models, after the surrounding transaction commits.
+ */
+@Component
+@Slf4j
+public class DoctorEvents {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void changed(User doctor, DoctorProfile profile) {
+        DoctorChange change = DoctorChange.of(doctor, profile);
+        TransactionCallbacks.afterCommit(() -> {
+            for (Listener listener : listeners) {
+                try {
+                    listener.onDoctorChange(change);
+                } catch (RuntimeException e) {
+                    log.error("Doctor listener {} failed for doctor {}",
+                            listener.getClass().getSimpleName(), change.doctorId(), e);
+                }
+            }
+        });
+    }
+
+    public interface Listener {
+        void onDoctorChange(DoctorChange change);
+    }
+}
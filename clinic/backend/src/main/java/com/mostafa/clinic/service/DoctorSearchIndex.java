@@ -0,0 +1,253 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.dto.response.DoctorResponse;
+import com.mostafa.clinic.repository.DoctorProfileRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory full-text index over doctors' specialty, names and bio. Terms are kept in a sorted
+ * map for prefix lookups and broken into trigrams for typo-tolerant matching, so searches are
+ * served without touching the database. Built at startup and patched per doctor from
+ * {@link DoctorEvents}; writers are serialized, readers never lock.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DoctorSearchIndex implements DoctorEvents.Listener {
+
+    static final int MAX_RESULTS = 100;
+
+    private static final double MIN_SIMILARITY = 0.35;
+    private static final double PREFIX_QUALITY = 0.8;
+    private static final double FUZZY_QUALITY = 0.6;
+    private static final double AVAILABLE_BOOST = 0.1;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "and", "the", "with", "for", "from", "into", "over", "years", "year", "experience",
+            "experienced", "specialist", "patients", "dr");
+
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final DoctorEvents doctorEvents;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Set<Long>> terms = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Set<String>> trigrams = new ConcurrentHashMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    @PostConstruct
+    void registerForChanges() {
+        doctorEvents.addListener(this);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<DoctorResponse> doctors = transactionTemplate.execute(status -> doctorProfileRepository.findAllResponses());
+        doctors.forEach(this::index);
+        log.info("🔎 Indexed {} doctors ({} terms)", entries.size(), terms.size());
+    }
+
+    @Override
+    public void onDoctorChange(DoctorChange change) {
+        index(change.toResponse());
+    }
+
+    /**
+     * Ranked search. Every query token is matched against each doctor's terms: exact beats prefix
+     * beats trigram similarity, weighted by the field the term came from. Doctors matching more
+     * tokens rank higher; available doctors get a small boost.
+     */
+    public List<DoctorResponse> search(String query, String specialtyFilter, int limit) {
+        int n = Math.max(1, Math.min(limit, MAX_RESULTS));
+        List<String> tokens = tokenize(query);
+        String specialty = specialtyFilter == null || specialtyFilter.isBlank()
+                ? null : normalize(specialtyFilter.trim());
+
+        Map<Long, Double> scores = new HashMap<>();
+        if (tokens.isEmpty()) {
+            entries.keySet().forEach(id -> scores.put(id, 0.0));
+        }
+        for (String token : tokens) {
+            Map<Long, Double> best = new HashMap<>();
+            matchTerms(token).forEach((term, quality) -> {
+                for (Long id : terms.getOrDefault(term, Set.of())) {
+                    Entry entry = entries.get(id);
+                    Field field = entry == null ? null : entry.fields().get(term);
+                    if (field != null) {
+                        best.merge(id, quality * field.weight, Math::max);
+                    }
+                }
+            });
+            best.forEach((id, score) -> scores.merge(id, score, Double::sum));
+        }
+
+        List<Map.Entry<Entry, Double>> ranked = new ArrayList<>();
+        scores.forEach((id, score) -> {
+            Entry entry = entries.get(id);
+            if (entry != null && (specialty == null || entry.normalizedSpecialty().contains(specialty))) {
+                double boost = entry.doctor().isAvailable() ? AVAILABLE_BOOST : 0;
+                ranked.add(Map.entry(entry, score + boost));
+            }
+        });
+        ranked.sort(Map.Entry.<Entry, Double>comparingByValue().reversed()
+                .thenComparing(e -> e.getKey().doctor().getId()));
+        return ranked.stream().limit(n).map(e -> e.getKey().doctor()).toList();
+    }
+
+    /**
+     * Every doctor whose specialty contains the given text, ignoring case and accents, in id
+     * order and without a limit: the old specialty search, with no fuzzy matching.
+     */
+    public List<DoctorResponse> bySpecialty(String specialty) {
+        String wanted = specialty == null ? "" : normalize(specialty.trim());
+        return entries.values().stream()
+                .filter(e -> e.normalizedSpecialty().contains(wanted))
+                .map(Entry::doctor)
+                .sorted(Comparator.comparing(DoctorResponse::getId))
+                .toList();
+    }
+
+    /** Index terms similar enough to the token, with a match quality in (0, 1]. */
+    private Map<String, Double> matchTerms(String token) {
+        Map<String, Double> matches = new HashMap<>();
+        if (terms.containsKey(token)) {
+            matches.put(token, 1.0);
+        }
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            for (String term : terms.subMap(token, false, token + Character.MAX_VALUE, false).keySet()) {
+                matches.putIfAbsent(term, PREFIX_QUALITY);
+            }
+        }
+
+        Set<String> queryGrams = trigramsOf(token);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : queryGrams) {
+            for (String term : trigrams.getOrDefault(gram, Set.of())) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+        shared.forEach((term, common) -> {
+            double similarity = (double) common / (queryGrams.size() + trigramsOf(term).size() - common);
+            if (similarity >= MIN_SIMILARITY) {
+                matches.merge(term, similarity * FUZZY_QUALITY, Math::max);
+            }
+        });
+        return matches;
+    }
+
+    private void index(DoctorResponse doctor) {
+        Map<String, Field> fields = new HashMap<>();
+        addTerms(fields, doctor.getSpecialty(), Field.SPECIALTY);
+        addTerms(fields, doctor.getFirstName(), Field.NAME);
+        addTerms(fields, doctor.getLastName(), Field.NAME);
+        addTerms(fields, doctor.getBio(), Field.BIO);
+        Entry entry = new Entry(doctor, normalize(Objects.toString(doctor.getSpecialty(), "")), Map.copyOf(fields));
+
+        writeLock.lock();
+        try {
+            Entry previous = entries.put(doctor.getId(), entry);
+            if (previous != null) {
+                for (String term : previous.fields().keySet()) {
+                    if (!fields.containsKey(term)) {
+                        removePosting(term, doctor.getId());
+                    }
+                }
+            }
+            for (String term : fields.keySet()) {
+                Set<Long> ids = terms.get(term);
+                if (ids == null) {
+                    ids = ConcurrentHashMap.newKeySet();
+                    terms.put(term, ids);
+                    for (String gram : trigramsOf(term)) {
+                        trigrams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(term);
+                    }
+                }
+                ids.add(doctor.getId());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void removePosting(String term, Long doctorId) {
+        Set<Long> ids = terms.get(term);
+        if (ids == null) {
+            return;
+        }
+        ids.remove(doctorId);
+        if (ids.isEmpty()) {
+            terms.remove(term);
+            for (String gram : trigramsOf(term)) {
+                Set<String> owners = trigrams.get(gram);
+                if (owners != null) {
+                    owners.remove(term);
+                    if (owners.isEmpty()) {
+                        trigrams.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Field> fields, String text, Field field) {
+        for (String token : tokenize(text)) {
+            if (field != Field.BIO || (token.length() >= 3 && !STOP_WORDS.contains(token))) {
+                fields.merge(token, field, (a, b) -> a.weight >= b.weight ? a : b);
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String part : normalize(text).split("[^\\p{L}\\p{Nd}]+")) {
+            if (!part.isEmpty()) {
+                tokens.add(part);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFKD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    /** Distinct trigrams of the term padded with '$' on both sides. */
+    private static Set<String> trigramsOf(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private enum Field {
+        SPECIALTY(3.0), NAME(2.5), BIO(1.0);
+
+        final double weight;
+
+        Field(double weight) {
+            this.weight = weight;
+        }
+    }
+
+    private record Entry(DoctorResponse doctor, String normalizedSpecialty, Map<String, Field> fields) {}
+}
@@ -3,13 +3,12 @@ package com.mostafa.clinic.service;
 import com.mostafa.clinic.dto.request.UpdateDoctorProfileRequest;
 import com.mostafa.clinic.dto.response.DoctorResponse;
 import com.mostafa.clinic.entity.DoctorProfile;
-import com.mostafa.clinic.entity.Role;
 import com.mostafa.clinic.entity.User;
 import com.mostafa.clinic.exception.ResourceNotFoundException;
 import com.mostafa.clinic.repository.DoctorProfileRepository;
-import com.mostafa.clinic.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -20,32 +19,40 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class DoctorService {
 
-    private final UserRepository userRepository;
     private final DoctorProfileRepository doctorProfileRepository;
+    private final DoctorEvents doctorEvents;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final DoctorDirectoryCache doctorDirectoryCache;
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<DoctorResponse> getAllDoctors() {
-        return userRepository.findByRole(Role.DOCTOR).stream()
-                .map(this::mapToResponse)
-                .toList();
+        return doctorDirectoryCache.all();
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<DoctorResponse> getAvailableDoctors() {
-        return doctorProfileRepository.findByAvailableTrue().stream()
-                .map(p -> mapToResponse(p.getUser()))
-                .toList();
+        return doctorDirectoryCache.available();
     }
 
-    public List<DoctorResponse> searchDoctors(String specialty) {
-        return doctorProfileRepository.findBySpecialtyContainingIgnoreCase(specialty).stream()
-                .map(p -> mapToResponse(p.getUser()))
-                .toList();
+    /**
+     * Served from the in-memory index. Without {@code q} this is the old specialty search: every
+     * doctor whose specialty contains the text, unranked and unlimited.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<DoctorResponse> searchDoctors(String query, String specialty, int limit) {
+        if (query == null || query.isBlank()) {
+            return doctorSearchIndex.bySpecialty(specialty);
+        }
+        return doctorSearchIndex.search(query, specialty, limit);
     }
 
+    @Transactional(propagation = Propagation.SUPPORTS)
     public DoctorResponse getDoctorById(Long doctorId) {
-        User doctor = userRepository.findById(doctorId)
-                .filter(u -> u.getRole() == Role.DOCTOR)
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
-        return mapToResponse(doctor);
+        DoctorResponse doctor = doctorDirectoryCache.get(doctorId);
+        if (doctor == null) {
+            throw new ResourceNotFoundException("Doctor not found with id: " + doctorId);
+        }
+        return doctor;
     }
 
     @Transactional
@@ -61,11 +68,13 @@ public class DoctorService {
         if (request.getWorkingHours() != null) profile.setWorkingHours(request.getWorkingHours());
 
         doctorProfileRepository.save(profile);
+        doctorEvents.changed(profile.getUser(), profile);
         return mapToResponse(profile.getUser());
     }
 
+    /** Maps a single managed doctor; lists go through the repository projections instead. */
     public DoctorResponse mapToResponse(User doctor) {
-        DoctorProfile profile = doctorProfileRepository.findByUserId(doctor.getId()).orElse(null);
+        DoctorProfile profile = doctor.getDoctorProfile();
         return DoctorResponse.builder()
                 .id(doctor.getId())
                 .firstName(doctor.getFirstName())
@@ -0,0 +1,54 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.exception.SlotConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped per-doctor locks that serialize slot reservation for the same doctor while letting
+ * bookings for different doctors proceed in parallel. A lock taken inside a transaction is
+ * held until that transaction completes, so the next booker sees the committed (or rolled back)
+ * state of the {@link BookingLedger}.
+ */
+@Component
+public class DoctorSlotLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long waitMillis;
+
+    public DoctorSlotLocks(@Value("${app.booking.lock-wait-ms:500}") long waitMillis) {
+        int size = Integer.highestOneBit(Math.max(16, Runtime.getRuntime().availableProcessors() * 4) - 1) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * Locks the doctor's stripe until the current transaction completes. Gives up after the
+     * configured wait with a {@link SlotConflictException} rather than queueing indefinitely.
+     */
+    public void lockForTransaction(Long doctorId) {
+        ReentrantLock lock = stripes[index(doctorId)];
+        try {
+            if (!lock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+                throw new SlotConflictException("This doctor's schedule is being updated. Please try again.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SlotConflictException("Booking was interrupted. Please try again.");
+        }
+        TransactionCallbacks.afterCompletion(lock::unlock);
+    }
+
+    private int index(Long doctorId) {
+        int h = doctorId.hashCode();
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
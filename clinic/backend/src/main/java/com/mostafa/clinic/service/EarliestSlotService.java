@@ -0,0 +1,152 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.dto.response.EarliestSlotResponse;
+import com.mostafa.clinic.entity.DoctorProfile;
+import com.mostafa.clinic.repository.DoctorProfileRepository;
+import com.mostafa.clinic.service.ScheduleService.FreeSlot;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * "First free slot" search across doctors of a specialty.
+ * Each doctor's next free slot is cached and dropped as soon as the {@link BookingLedger} reports a
+ * change that could move it, so a search mostly reads cached values. Misses are computed in memory
+ * from the preloaded ledger; the top-N slots are then produced by a priority-queue merge over the per-doctor slot sequences.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class EarliestSlotService implements BookingLedger.Listener {
+
+    static final int MAX_RESULTS = 50;
+
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final ScheduleService scheduleService;
+    private final BookingLedger bookingLedger;
+
+    private final ConcurrentMap<Long, NextSlot> nextSlots = new ConcurrentHashMap<>();
+    // bumped on every ledger change of a doctor so an in-flight computation never stores a stale value
+    private final ConcurrentMap<Long, Long> epochs = new ConcurrentHashMap<>();
+
+    @Value("${app.booking.search-horizon-days:14}")
+    private int horizonDays;
+
+    @PostConstruct
+    void registerWithLedger() {
+        bookingLedger.addListener(this);
+    }
+
+    public List<EarliestSlotResponse> findEarliest(String specialty, int limit) {
+        int n = Math.max(1, Math.min(limit, MAX_RESULTS));
+        List<DoctorProfile> profiles = doctorProfileRepository.findAvailableBySpecialtyWithUser(
+                specialty == null ? "" : specialty.trim());
+        if (profiles.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        LocalDate lastDate = today.plusDays(horizonDays - 1L);
+        int fromMinute = now.getHour() * 60 + now.getMinute() + 1;
+
+        Map<Long, DoctorProfile> byDoctor = new HashMap<>();
+        profiles.forEach(p -> byDoctor.put(p.getUser().getId(), p));
+        bookingLedger.preload(byDoctor.keySet(), today, lastDate);
+
+        // on the request thread: misses only walk the preloaded ledger, and tasks on the common pool
+        // would each have needed their own transaction and connection
+        List<FreeSlot> seeds = byDoctor.values().stream()
+                .map(p -> cachedNextFreeSlot(p, today, fromMinute, lastDate))
+                .filter(Objects::nonNull)
+                .toList();
+
+        PriorityQueue<FreeSlot> heap = new PriorityQueue<>(seeds);
+        List<EarliestSlotResponse> result = new ArrayList<>(n);
+        while (!heap.isEmpty() && result.size() < n) {
+            FreeSlot slot = heap.poll();
+            DoctorProfile profile = byDoctor.get(slot.doctorId());
+            result.add(toResponse(profile, slot));
+            FreeSlot next = scheduleService.nextFreeSlot(slot.doctorId(), scheduleService.scheduleFor(profile),
+                    slot.date(), slot.startMinute() + 1, lastDate);
+            if (next != null) {
+                heap.add(next);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void onChange(Long doctorId, LocalDate date, int fromMinute, int toMinute, boolean occupied) {
+        epochs.merge(doctorId, 1L, Long::sum);
+        NextSlot cached = nextSlots.get(doctorId);
+        if (cached == null) {
+            return;
+        }
+        FreeSlot slot = cached.slot();
+        boolean affected;
+        if (occupied) {
+            affected = slot != null && slot.date().equals(date)
+                    && fromMinute < slot.startMinute() + scheduleService.getSlotMinutes()
+                    && toMinute > slot.startMinute();
+        } else {
+            affected = slot == null || date.isBefore(slot.date())
+                    || (date.equals(slot.date()) && fromMinute < slot.startMinute());
+        }
+        if (affected) {
+            nextSlots.remove(doctorId);
+        }
+    }
+
+    private FreeSlot cachedNextFreeSlot(DoctorProfile profile, LocalDate today, int fromMinute, LocalDate lastDate) {
+        Long doctorId = profile.getUser().getId();
+        NextSlot cached = nextSlots.get(doctorId);
+        if (cached != null && cached.isValidFor(profile, today, fromMinute)) {
+            return cached.slot();
+        }
+
+        long epoch = epochs.getOrDefault(doctorId, 0L);
+        FreeSlot slot = scheduleService.nextFreeSlot(doctorId, scheduleService.scheduleFor(profile),
+                today, fromMinute, lastDate);
+        NextSlot fresh = new NextSlot(slot, today, profile.getWorkingDays(), profile.getWorkingHours());
+        epochs.compute(doctorId, (k, current) -> {
+            if ((current == null ? 0L : current) == epoch) {
+                nextSlots.put(doctorId, fresh);
+            }
+            return current;
+        });
+        return slot;
+    }
+
+    private EarliestSlotResponse toResponse(DoctorProfile profile, FreeSlot slot) {
+        return EarliestSlotResponse.builder()
+                .doctorId(slot.doctorId())
+                .doctorName(profile.getUser().getFullName())
+                .specialty(profile.getSpecialty())
+                .consultationFee(profile.getConsultationFee())
+                .date(slot.date())
+                .startTime(slot.startTime())
+                .endTime(slot.startTime().plusMinutes(scheduleService.getSlotMinutes()))
+                .build();
+    }
+
+    /** Cached result; {@code slot == null} means nothing free within the horizon as of {@code computedOn}. */
+    private record NextSlot(FreeSlot slot, LocalDate computedOn, String workingDays, String workingHours) {
+        boolean isValidFor(DoctorProfile profile, LocalDate today, int fromMinute) {
+            if (!computedOn.equals(today)
+                    || !Objects.equals(workingDays, profile.getWorkingDays())
+                    || !Objects.equals(workingHours, profile.getWorkingHours())) {
+                return false;
+            }
+            return slot == null || slot.date().isAfter(today) || slot.startMinute() >= fromMinute;
+        }
+    }
+}
@@ -1,39 +1,54 @@
 package com.mostafa.clinic.service;
 
 import com.mostafa.clinic.entity.Appointment;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Async;
+import com.mostafa.clinic.entity.NotificationType;
+import com.mostafa.clinic.entity.OutboxNotification;
+import com.mostafa.clinic.repository.OutboxNotificationRepository;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+/**
+ * Queues appointment emails in the notification outbox as part of the caller's transaction,
+ * so a rollback discards them and a crash cannot lose them. {@link NotificationDispatcher}
+ * delivers them afterwards.
+ */
 @Service
-@Slf4j
+@RequiredArgsConstructor
+@Transactional
 public class EmailService {
 
-    @Async
+    private final OutboxNotificationRepository outboxRepository;
+
     public void sendAppointmentConfirmation(Appointment appointment) {
-        log.info("[EMAIL] CONFIRMED → {} | Doctor: {} | Date: {} {}",
-            appointment.getPatient().getEmail(),
-            appointment.getDoctor().getFullName(),
-            appointment.getAppointmentDate(),
-            appointment.getAppointmentTime());
+        enqueue(appointment, NotificationType.APPOINTMENT_CONFIRMED, appointment.getPatient().getEmail(),
+                String.format("CONFIRMED → %s | Doctor: %s | Date: %s %s",
+                        appointment.getPatient().getEmail(),
+                        appointment.getDoctor().getFullName(),
+                        appointment.getAppointmentDate(),
+                        appointment.getAppointmentTime()));
     }
 
-    @Async
     public void sendAppointmentCancellation(Appointment appointment, String cancelledBy) {
-        log.info("[EMAIL] CANCELLED by {} → {} | Doctor: {} | Date: {} {}",
-            cancelledBy,
-            appointment.getPatient().getEmail(),
-            appointment.getDoctor().getFullName(),
-            appointment.getAppointmentDate(),
-            appointment.getAppointmentTime());
+        enqueue(appointment, NotificationType.APPOINTMENT_CANCELLED, appointment.getPatient().getEmail(),
+                String.format("CANCELLED by %s → %s | Doctor: %s | Date: %s %s",
+                        cancelledBy,
+                        appointment.getPatient().getEmail(),
+                        appointment.getDoctor().getFullName(),
+                        appointment.getAppointmentDate(),
+                        appointment.getAppointmentTime()));
     }
 
-    @Async
     public void sendAppointmentBooked(Appointment appointment) {
-        log.info("[EMAIL] NEW BOOKING → Doctor: {} | Patient: {} | Date: {} {}",
-            appointment.getDoctor().getEmail(),
-            appointment.getPatient().getFullName(),
-            appointment.getAppointmentDate(),
-            appointment.getAppointmentTime());
+        enqueue(appointment, NotificationType.APPOINTMENT_BOOKED, appointment.getDoctor().getEmail(),
+                String.format("NEW BOOKING → Doctor: %s | Patient: %s | Date: %s %s",
+                        appointment.getDoctor().getEmail(),
+                        appointment.getPatient().getFullName(),
+                        appointment.getAppointmentDate(),
+                        appointment.getAppointmentTime()));
+    }
+
+    private void enqueue(Appointment appointment, NotificationType type, String recipient, String message) {
+        outboxRepository.save(new OutboxNotification(appointment.getId(), type, recipient, message));
     }
 }
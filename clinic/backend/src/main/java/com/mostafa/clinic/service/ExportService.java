@@ -0,0 +1,232 @@
+package com.mostafa.clinic.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.mostafa.clinic.dto.response.AppointmentResponse;
+import com.mostafa.clinic.dto.response.UserResponse;
+import com.mostafa.clinic.exception.BusinessException;
+import com.mostafa.clinic.repository.AppointmentRepository;
+import com.mostafa.clinic.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full-table exports written row by row from a forward-only result stream. Rows are DTO
+ * projections, so nothing accumulates in the persistence context, and the writer is flushed
+ * every few thousand rows; heap use does not depend on the size of the table.
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 5000;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private static final List<Column<AppointmentResponse>> APPOINTMENT_COLUMNS = List.of(
+            new Column<>("id", AppointmentResponse::getId),
+            new Column<>("patientId", AppointmentResponse::getPatientId),
+            new Column<>("patientName", AppointmentResponse::getPatientName),
+            new Column<>("patientEmail", AppointmentResponse::getPatientEmail),
+            new Column<>("doctorId", AppointmentResponse::getDoctorId),
+            new Column<>("doctorName", AppointmentResponse::getDoctorName),
+            new Column<>("doctorEmail", AppointmentResponse::getDoctorEmail),
+            new Column<>("specialty", AppointmentResponse::getSpecialty),
+            new Column<>("appointmentDate", AppointmentResponse::getAppointmentDate),
+            new Column<>("appointmentTime", AppointmentResponse::getAppointmentTime),
+            new Column<>("durationMinutes", AppointmentResponse::getDurationMinutes),
+            new Column<>("status", AppointmentResponse::getStatus),
+            new Column<>("patientNotes", AppointmentResponse::getPatientNotes),
+            new Column<>("doctorNotes", AppointmentResponse::getDoctorNotes),
+            new Column<>("createdAt", AppointmentResponse::getCreatedAt));
+
+    private static final List<Column<UserResponse>> USER_COLUMNS = List.of(
+            new Column<>("id", UserResponse::getId),
+            new Column<>("firstName", UserResponse::getFirstName),
+            new Column<>("lastName", UserResponse::getLastName),
+            new Column<>("email", UserResponse::getEmail),
+            new Column<>("phone", UserResponse::getPhone),
+            new Column<>("role", UserResponse::getRole),
+            new Column<>("active", UserResponse::isActive),
+            new Column<>("createdAt", UserResponse::getCreatedAt));
+
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(AppointmentRepository appointmentRepository,
+                         UserRepository userRepository,
+                         ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.appointmentRepository = appointmentRepository;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /** Writes the whole dataset to the target stream; the stream itself is left open. */
+    public void export(Dataset dataset, Format format, boolean gzip, OutputStream target) throws IOException {
+        long started = System.nanoTime();
+        GZIPOutputStream zipped = gzip ? new GZIPOutputStream(target, BUFFER_BYTES) : null;
+        Writer out = new BufferedWriter(
+                new OutputStreamWriter(zipped != null ? zipped : target, StandardCharsets.UTF_8), BUFFER_BYTES);
+
+        long rows;
+        try {
+            rows = readOnlyTransaction.execute(status -> switch (dataset) {
+                case APPOINTMENTS -> write(appointmentRepository.streamAllResponses(),
+                        APPOINTMENT_COLUMNS, AppointmentResponse.class, format, out);
+                case USERS -> write(userRepository.streamAllResponses(),
+                        USER_COLUMNS, UserResponse.class, format, out);
+            });
+        } catch (UncheckedIOException e) {
+            // most likely the client went away; the response is already committed
+            log.warn("⚠️  Export of {} aborted: {}", dataset.fileStem(), e.getCause().getMessage());
+            throw e.getCause();
+        }
+        out.flush();
+        if (zipped != null) {
+            zipped.finish();
+        }
+        log.info("📦 Exported {} {} rows as {} in {} ms", rows, dataset.fileStem(), format.extension(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private <T> long write(Stream<T> rows, List<Column<T>> columns, Class<T> type, Format format, Writer out) {
+        ObjectWriter json = objectMapper.writerFor(type);
+        long[] count = {0};
+        try (rows) {
+            if (format == Format.CSV) {
+                writeLine(out, columns.stream().map(Column::header).toList());
+            }
+            rows.forEach(row -> {
+                try {
+                    if (format == Format.CSV) {
+                        writeCsvRow(out, columns, row);
+                    } else {
+                        out.write(json.writeValueAsString(row));
+                        out.write('\n');
+                    }
+                    if (++count[0] % FLUSH_EVERY_ROWS == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        return count[0];
+    }
+
+    private static <T> void writeCsvRow(Writer out, List<Column<T>> columns, T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = columns.get(i).value().apply(row);
+            if (value instanceof CharSequence text) {
+                writeCsvField(out, defuseFormula(text.toString()));
+            } else if (value != null) {
+                writeCsvField(out, value.toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static void writeLine(Writer out, List<String> fields) {
+        try {
+            out.write(String.join(",", fields));
+            out.write("\r\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Text a spreadsheet would run as a formula (names and notes are user input) gets a leading
+     * apostrophe, which shows it as plain text. Numbers and dates are written as they are.
+     */
+    private static String defuseFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r'
+                ? "'" + value : value;
+    }
+
+    /** RFC 4180 quoting: only fields containing a separator, quote or line break are quoted. */
+    private static void writeCsvField(Writer out, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    public enum Dataset {
+        APPOINTMENTS, USERS;
+
+        public static Dataset parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Unknown export '" + value + "'. Use appointments or users");
+            }
+        }
+
+        public String fileStem() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    public enum Format {
+        CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8)),
+        NDJSON("ndjson", new MediaType("application", "x-ndjson", StandardCharsets.UTF_8));
+
+        private final String extension;
+        private final MediaType mediaType;
+
+        Format(String extension, MediaType mediaType) {
+            this.extension = extension;
+            this.mediaType = mediaType;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BusinessException("Unknown export format '" + value + "'. Use csv or ndjson");
+            }
+        }
+
+        public String extension() { return extension; }
+        public MediaType mediaType() { return mediaType; }
+    }
+
+    private record Column<T>(String header, Function<T, Object> value) {}
+}
@@ -0,0 +1,18 @@
+package com.mostafa.clinic.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local stand-in for a real mail gateway: writes each notification to the log.
+ * Replace by registering another {@link NotificationSink} bean marked {@code @Primary}.
+ */
+@Component
+@Slf4j
+public class LoggingNotificationSink implements NotificationSink {
+
+    @Override
+    public void send(Notification notification) {
+        log.info("[EMAIL] {}", notification.message());
+    }
+}
@@ -0,0 +1,129 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.entity.OutboxNotification;
+import com.mostafa.clinic.entity.OutboxStatus;
+import com.mostafa.clinic.repository.OutboxNotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the notification outbox in batches on a fixed delay.
+ * Within a batch, several pending messages for the same appointment and recipient collapse into the
+ * newest one. Failed deliveries are retried with exponential backoff until max-attempts, then FAILED.
+ * The outbox table is the buffer: producers never block, and the dispatcher stops a round early
+ * as soon as the sink starts failing instead of hammering it. Rows are claimed with row locks for
+ * the length of their batch, so several instances can dispatch without sending a message twice.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDispatcher {
+
+    private final OutboxNotificationRepository outboxRepository;
+    private final NotificationSink sink;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.notifications.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.notifications.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.notifications.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.base-backoff-ms:5000}")
+    private long baseBackoffMillis;
+
+    @Value("${app.notifications.max-backoff-ms:600000}")
+    private long maxBackoffMillis;
+
+    @Scheduled(fixedDelayString = "${app.notifications.poll-ms:1000}")
+    public void dispatch() {
+        for (int round = 0; round < maxBatchesPerRun; round++) {
+            Boolean more = transactionTemplate.execute(status -> dispatchBatch());
+            if (!Boolean.TRUE.equals(more)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Claims one batch, sends it and records the outcome in the same transaction, so no other
+     * dispatcher can pick the same rows up meanwhile. Returns whether another round is worthwhile.
+     */
+    private boolean dispatchBatch() {
+        List<OutboxNotification> batch = outboxRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                OutboxStatus.PENDING, LocalDateTime.now(), PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return false;
+        }
+        // the rows are managed: their new state is written when the transaction commits
+        boolean sinkHealthy = deliver(batch);
+        return sinkHealthy && batch.size() == batchSize;
+    }
+
+    /** Sends one batch, updating each row's state in place. Returns false if any delivery failed. */
+    private boolean deliver(List<OutboxNotification> batch) {
+        Map<String, OutboxNotification> latest = new LinkedHashMap<>();
+        List<OutboxNotification> superseded = new ArrayList<>();
+        for (OutboxNotification n : batch) {
+            String key = n.getAppointmentId() + "|" + n.getRecipient();
+            OutboxNotification previous = latest.put(key, n);
+            if (previous != null) {
+                superseded.add(previous);
+            }
+        }
+        superseded.forEach(n -> n.setStatus(OutboxStatus.COALESCED));
+
+        boolean healthy = true;
+        LocalDateTime now = LocalDateTime.now();
+        for (OutboxNotification n : latest.values()) {
+            if (!healthy) {
+                // leave the rest PENDING for the next run
+                break;
+            }
+            try {
+                sink.send(new NotificationSink.Notification(
+                        n.getId(), n.getAppointmentId(), n.getType(), n.getRecipient(), n.getMessage()));
+                n.setStatus(OutboxStatus.SENT);
+                n.setSentAt(now);
+                n.setLastError(null);
+            } catch (Exception e) {
+                healthy = false;
+                n.setAttempts(n.getAttempts() + 1);
+                n.setLastError(truncate(e.getMessage()));
+                if (n.getAttempts() >= maxAttempts) {
+                    n.setStatus(OutboxStatus.FAILED);
+                    log.error("Giving up on notification {} after {} attempts: {}", n.getId(), n.getAttempts(), e.getMessage());
+                } else {
+                    n.setNextAttemptAt(now.plus(backoff(n.getAttempts())));
+                    log.warn("Notification {} failed (attempt {}), retrying later: {}", n.getId(), n.getAttempts(), e.getMessage());
+                }
+            }
+        }
+        return healthy;
+    }
+
+    private Duration backoff(int attempts) {
+        long delay = baseBackoffMillis << Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(delay, maxBackoffMillis));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
@@ -0,0 +1,13 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.entity.NotificationType;
+
+/**
+ * Delivery channel for outbox notifications. Throwing marks the message for retry with backoff.
+ */
+public interface NotificationSink {
+
+    void send(Notification notification) throws Exception;
+
+    record Notification(Long id, Long appointmentId, NotificationType type, String recipient, String message) {}
+}
@@ -0,0 +1,67 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.exception.BusinessException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation tokens for keyset pagination: the sort key of the last row of a page,
+ * URL-safe base64 encoded. Clients must treat them as opaque; the format may change.
+ */
+final class PageCursor {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+
+    private PageCursor() {}
+
+    static String encode(Object... keys) {
+        StringBuilder raw = new StringBuilder(VERSION);
+        for (Object key : keys) {
+            raw.append(SEPARATOR).append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Returns the keys of a cursor, or null for a first-page request. */
+    static String[] decode(String cursor, int keyCount) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != keyCount + 1 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException(raw);
+            }
+            String[] keys = new String[keyCount];
+            System.arraycopy(parts, 1, keys, 0, keyCount);
+            return keys;
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    static long id(String key) {
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            throw invalid();
+        }
+    }
+
+    static LocalDateTime timestamp(String key) {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw invalid();
+        }
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException("Invalid page cursor");
+    }
+}
@@ -0,0 +1,91 @@
+package com.mostafa.clinic.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mostafa.clinic.entity.User;
+import com.mostafa.clinic.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Authenticated principals by email, so a request carrying a valid token does not have to read
+ * its user row. Entries are detached copies without the password hash or doctor profile, and are
+ * never written to. A user is evicted after commit of anything that changes what the principal
+ * carries (activation, doctor profile); the short TTL bounds staleness from edits made outside
+ * the application. Loads run on the cache-load pool, as in {@link DoctorDirectoryCache}.
+ */
+@Component
+public class PrincipalCache implements DoctorEvents.Listener {
+
+    private final UserRepository userRepository;
+    private final DoctorEvents doctorEvents;
+    private final AsyncCache<String, User> byEmail;
+
+    public PrincipalCache(UserRepository userRepository,
+                          DoctorEvents doctorEvents,
+                          CacheRegistry cacheRegistry,
+                          @Qualifier("cacheLoadExecutor") Executor executor,
+                          @Value("${app.cache.principals.ttl:60s}") Duration ttl,
+                          @Value("${app.cache.principals.max-size:10000}") long maxSize) {
+        this.userRepository = userRepository;
+        this.doctorEvents = doctorEvents;
+        this.byEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .executor(executor)
+                .recordStats()
+                .buildAsync();
+        cacheRegistry.register("security.principals", byEmail.synchronous());
+    }
+
+    @PostConstruct
+    void registerForChanges() {
+        doctorEvents.addListener(this);
+    }
+
+    /** The principal for an email, or null if there is no such user (absence is not cached). */
+    public User get(String email) {
+        return join(byEmail.get(email, e -> userRepository.findByEmail(e).map(PrincipalCache::detach).orElse(null)));
+    }
+
+    /** Drops the user once the current transaction commits, or immediately outside one. */
+    public void evictAfterCommit(String email) {
+        TransactionCallbacks.afterCommit(() -> byEmail.synchronous().invalidate(email));
+    }
+
+    @Override
+    public void onDoctorChange(DoctorChange change) {
+        byEmail.synchronous().invalidate(change.email());
+    }
+
+    private static User detach(User user) {
+        return User.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .role(user.getRole())
+                .active(user.isActive())
+                .createdAt(user.getCreatedAt())
+                .build();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
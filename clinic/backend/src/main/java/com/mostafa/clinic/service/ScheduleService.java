@@ -0,0 +1,159 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.dto.response.TimeSlotResponse;
+import com.mostafa.clinic.entity.DoctorProfile;
+import com.mostafa.clinic.exception.BusinessException;
+import com.mostafa.clinic.exception.ResourceNotFoundException;
+import com.mostafa.clinic.repository.DoctorProfileRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ScheduleService implements DoctorEvents.Listener {
+
+    static final int MAX_WINDOW_DAYS = 31;
+
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final BookingLedger bookingLedger;
+
+    private final DoctorEvents doctorEvents;
+
+    // compiled schedule per doctor, dropped when the doctor changes; one entry per doctor at most
+    private final ConcurrentMap<Long, CompiledSchedule> schedules = new ConcurrentHashMap<>();
+
+    @Value("${app.booking.slot-minutes:30}")
+    private int slotMinutes;
+
+    @PostConstruct
+    void registerForChanges() {
+        doctorEvents.addListener(this);
+    }
+
+    public List<TimeSlotResponse> getFreeSlots(Long doctorId, LocalDate from, LocalDate to) {
+        DoctorProfile profile = doctorProfileRepository.findByUserId(doctorId)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found with id: " + doctorId));
+
+        LocalDate today = LocalDate.now();
+        LocalDate start = from != null && from.isAfter(today) ? from : today;
+        LocalDate end = to != null ? to : start.plusDays(6);
+        if (end.isBefore(start)) {
+            throw new BusinessException("'to' must not be before 'from'");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_WINDOW_DAYS) {
+            throw new BusinessException("Slot window cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
+        if (!profile.isAvailable()) {
+            return List.of();
+        }
+
+        WorkingSchedule schedule = scheduleFor(profile);
+        bookingLedger.preload(List.of(doctorId), start, end);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TimeSlotResponse> slots = new ArrayList<>();
+        for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+            if (!schedule.worksOn(date.getDayOfWeek())) {
+                continue;
+            }
+            for (int r = 0; r < schedule.rangeCount(); r++) {
+                for (int m = schedule.rangeStart(r); m + slotMinutes <= schedule.rangeEnd(r); m += slotMinutes) {
+                    LocalTime time = LocalTime.of(m / 60, m % 60);
+                    if (date.atTime(time).isAfter(now) && bookingLedger.isFree(doctorId, date, time, slotMinutes)) {
+                        slots.add(TimeSlotResponse.builder()
+                                .date(date)
+                                .startTime(time)
+                                .endTime(time.plusMinutes(slotMinutes))
+                                .build());
+                    }
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Earliest free slot on the doctor's grid starting at or after {@code fromMinute} on {@code date},
+     * looking no further than {@code lastDate}. Returns null if there is none. Reads only the ledger,
+     * which the caller has preloaded, so it neither needs nor opens a transaction.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public FreeSlot nextFreeSlot(Long doctorId, WorkingSchedule schedule, LocalDate date, int fromMinute,
+                                 LocalDate lastDate) {
+        for (LocalDate d = date; !d.isAfter(lastDate); d = d.plusDays(1)) {
+            if (!schedule.worksOn(d.getDayOfWeek())) {
+                continue;
+            }
+            int earliest = d.equals(date) ? fromMinute : 0;
+            for (int r = 0; r < schedule.rangeCount(); r++) {
+                for (int m = schedule.rangeStart(r); m + slotMinutes <= schedule.rangeEnd(r); m += slotMinutes) {
+                    if (m >= earliest && bookingLedger.isFree(doctorId, d, LocalTime.of(m / 60, m % 60), slotMinutes)) {
+                        return new FreeSlot(doctorId, d, m);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Compiles from the given profile only; no transaction, as for {@link #nextFreeSlot}. */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public WorkingSchedule scheduleFor(DoctorProfile profile) {
+        Long doctorId = profile.getUser().getId();
+        CompiledSchedule cached = schedules.get(doctorId);
+        // the columns are compared as well, for a profile read before its change event arrived
+        if (cached != null && cached.matches(profile)) {
+            return cached.schedule();
+        }
+        CompiledSchedule compiled = new CompiledSchedule(profile.getWorkingDays(), profile.getWorkingHours(),
+                WorkingSchedule.parse(profile.getWorkingDays(), profile.getWorkingHours()));
+        schedules.put(doctorId, compiled);
+        return compiled.schedule();
+    }
+
+    @Override
+    public void onDoctorChange(DoctorChange change) {
+        schedules.remove(change.doctorId());
+    }
+
+    public int getSlotMinutes() {
+        return slotMinutes;
+    }
+
+    private record CompiledSchedule(String workingDays, String workingHours, WorkingSchedule schedule) {
+        boolean matches(DoctorProfile profile) {
+            return Objects.equals(workingDays, profile.getWorkingDays())
+                    && Objects.equals(workingHours, profile.getWorkingHours());
+        }
+    }
+
+    /** A free slot of {@code slotMinutes} starting at {@code startMinute} of the day. */
+    public record FreeSlot(Long doctorId, LocalDate date, int startMinute) implements Comparable<FreeSlot> {
+        public LocalTime startTime() {
+            return LocalTime.of(startMinute / 60, startMinute % 60);
+        }
+
+        @Override
+        public int compareTo(FreeSlot o) {
+            int c = date.compareTo(o.date);
+            if (c != 0) return c;
+            c = Integer.compare(startMinute, o.startMinute);
+            return c != 0 ? c : doctorId.compareTo(o.doctorId);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.entity.TokenRevocation;
+import com.mostafa.clinic.entity.User;
+import com.mostafa.clinic.repository.TokenRevocationRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Which outstanding tokens are no longer accepted, checked on every authenticated request with
+ * two hash lookups and no query. A user's tokens are revoked together by raising their token
+ * version (tokens carry the version they were issued with); a single token by its id.
+ * Revocations are appended to {@code token_revocations} in the caller's transaction, applied in
+ * memory after it commits, reloaded at startup and purged once every token they cover has expired.
+ */
+@Component
+@Slf4j
+public class TokenRevocationRegistry {
+
+    private final TokenRevocationRepository revocationRepository;
+    private final long tokenLifetimeMs;
+
+    private final ConcurrentMap<Long, Cutoff> minVersions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    public TokenRevocationRegistry(TokenRevocationRepository revocationRepository,
+                                   @Value("${app.jwt.expiration}") long tokenLifetimeMs) {
+        this.revocationRepository = revocationRepository;
+        this.tokenLifetimeMs = tokenLifetimeMs;
+    }
+
+    /** True if a token with this user, version and id (which may be null) has been revoked. */
+    public boolean isRevoked(long userId, int version, String tokenId) {
+        Cutoff cutoff = minVersions.get(userId);
+        if (cutoff != null && version < cutoff.minVersion()) {
+            return true;
+        }
+        return tokenId != null && revokedTokens.containsKey(tokenId);
+    }
+
+    /**
+     * Revokes every token issued to the user so far by bumping their token version. The caller
+     * saves the user in the same transaction.
+     */
+    public void revokeAll(User user) {
+        int next = user.getTokenVersion() + 1;
+        user.setTokenVersion(next);
+        // any token issued before now has expired by this time, and later ones carry the new version
+        Instant expiresAt = Instant.now().plusMillis(tokenLifetimeMs);
+        revocationRepository.save(TokenRevocation.version(user.getId(), next, expiresAt));
+        Long userId = user.getId();
+        TransactionCallbacks.afterCommit(() -> raise(userId, next, expiresAt));
+        log.info("🔐 Revoked all tokens of user {} (version {})", userId, next);
+    }
+
+    /** Revokes a single token until it would have expired anyway. */
+    public void revoke(long userId, String tokenId, Instant expiresAt) {
+        revocationRepository.save(TokenRevocation.token(userId, tokenId, expiresAt));
+        TransactionCallbacks.afterCommit(() -> revokedTokens.put(tokenId, expiresAt));
+    }
+
+    /** Loaded before the web server accepts requests, so none is checked against an empty registry. */
+    @PostConstruct
+    void load() {
+        Instant now = Instant.now();
+        int rows = 0;
+        for (TokenRevocation r : revocationRepository.findByExpiresAtAfter(now)) {
+            if (r.getTokenId() != null) {
+                revokedTokens.put(r.getTokenId(), r.getExpiresAt());
+            } else if (r.getMinVersion() != null) {
+                raise(r.getUserId(), r.getMinVersion(), r.getExpiresAt());
+            }
+            rows++;
+        }
+        log.info("🔐 Loaded {} token revocations", rows);
+    }
+
+    @Scheduled(initialDelayString = "${app.jwt.revocation.purge-ms:3600000}",
+            fixedDelayString = "${app.jwt.revocation.purge-ms:3600000}")
+    @Transactional
+    public void purge() {
+        Instant now = Instant.now();
+        int deleted = revocationRepository.deleteExpired(now);
+        minVersions.values().removeIf(c -> !c.expiresAt().isAfter(now));
+        revokedTokens.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        if (deleted > 0) {
+            log.debug("🔐 Purged {} expired token revocations", deleted);
+        }
+    }
+
+    private void raise(Long userId, int minVersion, Instant expiresAt) {
+        minVersions.merge(userId, new Cutoff(minVersion, expiresAt),
+                (a, b) -> a.minVersion() >= b.minVersion() ? a : b);
+    }
+
+    private record Cutoff(int minVersion, Instant expiresAt) {}
+}
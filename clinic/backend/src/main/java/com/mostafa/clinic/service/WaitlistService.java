@@ -0,0 +1,253 @@
+package com.mostafa.clinic.service;
+
+import com.mostafa.clinic.dto.request.WaitlistRequest;
+import com.mostafa.clinic.dto.response.WaitlistResponse;
+import com.mostafa.clinic.entity.*;
+import com.mostafa.clinic.exception.BusinessException;
+import com.mostafa.clinic.exception.ResourceNotFoundException;
+import com.mostafa.clinic.exception.SlotConflictException;
+import com.mostafa.clinic.repository.AppointmentRepository;
+import com.mostafa.clinic.repository.UserRepository;
+import com.mostafa.clinic.repository.WaitlistEntryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Waitlist for a doctor's day. Entries are persisted in {@code waitlist_entries}; the WAITING ones
+ * are also kept in a per doctor/day FIFO queue, loaded lazily, so a released slot can be handed to
+ * the first eligible waiter without scanning the table. Promotion runs once the transaction that
+ * released the slot has committed, in a transaction of its own; if that rolls back the queue is
+ * dropped and reloaded from the database, and the slot simply stays open for regular booking.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+@Slf4j
+public class WaitlistService {
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final UserRepository userRepository;
+    private final BookingLedger bookingLedger;
+    private final DoctorSlotLocks doctorSlotLocks;
+    private final EmailService emailService;
+    private final AppointmentEvents appointmentEvents;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ConcurrentMap<QueueKey, Queue<Waiter>> queues = new ConcurrentHashMap<>();
+
+    public WaitlistResponse join(Long patientId, WaitlistRequest request) {
+        User patient = userRepository.findById(patientId)
+                .orElseThrow(() -> new ResourceNotFoundException("Patient not found"));
+        User doctor = userRepository.findById(request.getDoctorId())
+                .filter(u -> u.getRole() == Role.DOCTOR)
+                .orElseThrow(() -> new ResourceNotFoundException("Doctor not found"));
+
+        int duration = request.getDurationMinutes() != null
+                ? request.getDurationMinutes() : Appointment.DEFAULT_DURATION_MINUTES;
+        if (BookingLedger.minuteOfDay(request.getWindowStart()) + duration
+                > BookingLedger.minuteOfDay(request.getWindowEnd())) {
+            throw new BusinessException("The waiting window must be at least as long as the appointment");
+        }
+        if (waitlistEntryRepository.existsByPatientIdAndDoctorIdAndPreferredDateAndStatus(
+                patientId, doctor.getId(), request.getDate(), WaitlistStatus.WAITING)) {
+            throw new BusinessException("You are already on this doctor's waitlist for that day");
+        }
+
+        WaitlistEntry entry = waitlistEntryRepository.save(WaitlistEntry.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .preferredDate(request.getDate())
+                .windowStart(request.getWindowStart())
+                .windowEnd(request.getWindowEnd())
+                .durationMinutes(duration)
+                .build());
+
+        Waiter waiter = Waiter.of(entry);
+        QueueKey key = new QueueKey(doctor.getId(), request.getDate());
+        TransactionCallbacks.afterCommit(() -> {
+            Queue<Waiter> queue = queues.get(key);
+            // an absent queue will pick the entry up from the database when first loaded
+            if (queue != null && queue.stream().noneMatch(w -> w.entryId() == waiter.entryId())) {
+                queue.add(waiter);
+            }
+        });
+        return mapToResponse(entry);
+    }
+
+    public WaitlistResponse leave(Long patientId, Long entryId) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId)
+                .filter(e -> e.getPatient().getId().equals(patientId))
+                .orElseThrow(() -> new ResourceNotFoundException("Waitlist entry not found"));
+        if (entry.getStatus() != WaitlistStatus.WAITING) {
+            throw new BusinessException("Only WAITING entries can be cancelled");
+        }
+        entry.setStatus(WaitlistStatus.CANCELLED);
+        entry = waitlistEntryRepository.save(entry);
+
+        QueueKey key = new QueueKey(entry.getDoctor().getId(), entry.getPreferredDate());
+        TransactionCallbacks.afterCommit(() -> {
+            Queue<Waiter> queue = queues.get(key);
+            if (queue != null) {
+                queue.removeIf(w -> w.entryId() == entryId);
+            }
+        });
+        return mapToResponse(entry);
+    }
+
+    @Transactional(readOnly = true)
+    public List<WaitlistResponse> getPatientEntries(Long patientId) {
+        return waitlistEntryRepository.findByPatientIdWithDoctor(patientId)
+                .stream().map(this::mapToResponse).toList();
+    }
+
+    /**
+     * Offers a slot released by the current transaction to the waitlist after it commits. By then
+     * the released row no longer holds the slot, and a failed promotion cannot undo the release.
+     */
+    public void promoteAfterCommit(Appointment released) {
+        TransactionCallbacks.afterCommit(() -> {
+            TransactionTemplate promotion = new TransactionTemplate(transactionManager);
+            // the released transaction's resources are still bound here; REQUIRED would join it
+            promotion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            try {
+                promotion.executeWithoutResult(status -> promoteInto(released));
+            } catch (DataIntegrityViolationException e) {
+                // the slot was taken by a write that did not go through the doctor's lock
+                log.warn("Skipped waitlist promotion into the slot of appointment {}: {}",
+                        released.getId(), e.getMessage());
+            } catch (RuntimeException e) {
+                // the release is already committed; a failed promotion must not surface as a failed request
+                log.error("Waitlist promotion into the slot of appointment {} failed", released.getId(), e);
+            }
+        });
+    }
+
+    /**
+     * Offers a just-released slot to the first waiter whose window fits it, creating a PENDING
+     * appointment for them in the current transaction. Returns the new appointment, or null.
+     */
+    private Appointment promoteInto(Appointment released) {
+        Long doctorId = released.getDoctor().getId();
+        LocalDate date = released.getAppointmentDate();
+        LocalTime start = released.getAppointmentTime();
+        if (date.atTime(start).isBefore(LocalDateTime.now())) {
+            return null;
+        }
+
+        QueueKey key = new QueueKey(doctorId, date);
+        Queue<Waiter> queue = queues.get(key);
+        if (queue == null) {
+            queues.keySet().removeIf(k -> k.date().isBefore(LocalDate.now()));
+            // loaded outside computeIfAbsent so the JDBC call never runs under the map's bin monitor
+            Queue<Waiter> loaded = load(key);
+            Queue<Waiter> existing = queues.putIfAbsent(key, loaded);
+            queue = existing != null ? existing : loaded;
+        }
+        if (queue.isEmpty()) {
+            return null;
+        }
+
+        try {
+            doctorSlotLocks.lockForTransaction(doctorId);
+        } catch (SlotConflictException e) {
+            // never fail the cancellation itself; the slot simply stays open for regular booking
+            log.warn("Skipped waitlist promotion for doctor {} on {}: {}", doctorId, date, e.getMessage());
+            return null;
+        }
+        int from = BookingLedger.minuteOfDay(start);
+        for (Waiter waiter : queue) {
+            if (from < waiter.windowStart() || from + waiter.durationMinutes() > waiter.windowEnd()
+                    || !bookingLedger.isFree(doctorId, date, start, waiter.durationMinutes())) {
+                continue;
+            }
+            WaitlistEntry entry = waitlistEntryRepository.findById(waiter.entryId()).orElse(null);
+            if (entry == null || entry.getStatus() != WaitlistStatus.WAITING) {
+                queue.remove(waiter);
+                continue;
+            }
+            User patient = userRepository.findById(waiter.patientId()).orElse(null);
+            if (patient == null || !patient.isActive()) {
+                continue;
+            }
+            if (appointmentRepository.existsByDoctorIdAndAppointmentDateAndAppointmentTimeAndStatusNot(
+                    doctorId, date, start, AppointmentStatus.CANCELLED)) {
+                // the ledger missed a row holding this exact start; inserting would break uk_appointments_active_slot
+                log.warn("Skipped waitlist promotion for doctor {} on {} {}: the slot is taken", doctorId, date, start);
+                return null;
+            }
+
+            Appointment appointment = appointmentRepository.saveAndFlush(Appointment.builder()
+                    .patient(patient)
+                    .doctor(released.getDoctor())
+                    .appointmentDate(date)
+                    .appointmentTime(start)
+                    .durationMinutes(waiter.durationMinutes())
+                    .patientNotes("Booked from waitlist")
+                    .status(AppointmentStatus.PENDING)
+                    .build());
+            bookingLedger.apply(appointment);
+            appointmentEvents.created(appointment);
+
+            entry.setStatus(WaitlistStatus.PROMOTED);
+            entry.setPromotedAppointmentId(appointment.getId());
+            waitlistEntryRepository.save(entry);
+
+            queue.remove(waiter);
+            TransactionCallbacks.onRollback(() -> queues.remove(key));
+            emailService.sendAppointmentBooked(appointment);
+            log.info("Promoted waitlist entry {} to appointment {}", entry.getId(), appointment.getId());
+            return appointment;
+        }
+        return null;
+    }
+
+    private Queue<Waiter> load(QueueKey key) {
+        Queue<Waiter> queue = new ConcurrentLinkedQueue<>();
+        waitlistEntryRepository.findByDoctorIdAndPreferredDateAndStatusOrderByIdAsc(
+                        key.doctorId(), key.date(), WaitlistStatus.WAITING)
+                .forEach(e -> queue.add(Waiter.of(e)));
+        return queue;
+    }
+
+    private WaitlistResponse mapToResponse(WaitlistEntry e) {
+        return WaitlistResponse.builder()
+                .id(e.getId())
+                .doctorId(e.getDoctor().getId())
+                .doctorName(e.getDoctor().getFullName())
+                .date(e.getPreferredDate())
+                .windowStart(e.getWindowStart())
+                .windowEnd(e.getWindowEnd())
+                .durationMinutes(e.getDurationMinutes())
+                .status(e.getStatus())
+                .promotedAppointmentId(e.getPromotedAppointmentId())
+                .createdAt(e.getCreatedAt())
+                .build();
+    }
+
+    private record QueueKey(Long doctorId, LocalDate date) {}
+
+    /** Immutable queue element; window bounds are minutes of the day. */
+    private record Waiter(long entryId, long patientId, int windowStart, int windowEnd, int durationMinutes) {
+        static Waiter of(WaitlistEntry e) {
+            return new Waiter(e.getId(), e.getPatient().getId(),
+                    BookingLedger.minuteOfDay(e.getWindowStart()), BookingLedger.minuteOfDay(e.getWindowEnd()),
+                    e.getDurationMinutes());
+        }
+    }
+}
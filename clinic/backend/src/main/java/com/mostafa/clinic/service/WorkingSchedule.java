@@ -0,0 +1,107 @@
+package com.mostafa.clinic.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A doctor's weekly schedule compiled from the CSV columns on {@code DoctorProfile}:
+ * working days as an {@link EnumSet} and working hours as sorted minute-of-day ranges.
+ * Accepts one or more comma-separated ranges, e.g. "09:00-13:00,14:00-17:00".
+ * Unparseable entries are skipped rather than failing the whole schedule.
+ */
+@Slf4j
+public final class WorkingSchedule {
+
+    private final Set<DayOfWeek> days;
+    // [start0, end0, start1, end1, ...] in minutes of the day, half-open
+    private final int[] ranges;
+
+    private WorkingSchedule(Set<DayOfWeek> days, int[] ranges) {
+        this.days = days;
+        this.ranges = ranges;
+    }
+
+    public static WorkingSchedule parse(String workingDays, String workingHours) {
+        EnumSet<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if (workingDays != null) {
+            for (String token : workingDays.split(",")) {
+                String day = token.trim().toUpperCase(Locale.ROOT);
+                if (day.isEmpty()) continue;
+                try {
+                    days.add(DayOfWeek.valueOf(day));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Ignoring unknown working day '{}'", token);
+                }
+            }
+        }
+
+        int[] ranges = new int[0];
+        int count = 0;
+        if (workingHours != null) {
+            String[] parts = workingHours.split(",");
+            ranges = new int[parts.length * 2];
+            for (String part : parts) {
+                String[] bounds = part.trim().split("-");
+                if (bounds.length != 2) {
+                    log.warn("Ignoring malformed working hours '{}'", part);
+                    continue;
+                }
+                try {
+                    int start = minuteOfDay(LocalTime.parse(bounds[0].trim()));
+                    int end = minuteOfDay(LocalTime.parse(bounds[1].trim()));
+                    if (end > start) {
+                        ranges[count++] = start;
+                        ranges[count++] = end;
+                    }
+                } catch (DateTimeParseException e) {
+                    log.warn("Ignoring malformed working hours '{}'", part);
+                }
+            }
+        }
+        int[] compact = Arrays.copyOf(ranges, count);
+        sortRanges(compact);
+        return new WorkingSchedule(days, compact);
+    }
+
+    public boolean worksOn(DayOfWeek day) {
+        return days.contains(day);
+    }
+
+    public int rangeCount() {
+        return ranges.length / 2;
+    }
+
+    public int rangeStart(int i) {
+        return ranges[i * 2];
+    }
+
+    public int rangeEnd(int i) {
+        return ranges[i * 2 + 1];
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static void sortRanges(int[] ranges) {
+        // insertion sort on pairs; schedules have a handful of ranges at most
+        for (int i = 2; i < ranges.length; i += 2) {
+            int start = ranges[i], end = ranges[i + 1];
+            int j = i - 2;
+            while (j >= 0 && ranges[j] > start) {
+                ranges[j + 2] = ranges[j];
+                ranges[j + 3] = ranges[j + 1];
+                j -= 2;
+            }
+            ranges[j + 2] = start;
+            ranges[j + 3] = end;
+        }
+    }
+}
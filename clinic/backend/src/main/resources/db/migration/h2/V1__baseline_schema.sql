@@ -0,0 +1,123 @@
+-- Schema as generated from the entity mappings before migrations took it over.
+-- Keep in step with mysql/V1__baseline_schema.sql.
+
+create sequence user_seq start with 1 increment by 50;
+create sequence appointment_seq start with 1 increment by 50;
+create sequence outbox_seq start with 1 increment by 50;
+create sequence rollup_seq start with 1 increment by 50;
+create sequence revocation_seq start with 1 increment by 50;
+
+create table users (
+    id             bigint       not null,
+    first_name     varchar(255) not null,
+    last_name      varchar(255) not null,
+    email          varchar(255) not null,
+    password       varchar(255) not null,
+    phone          varchar(255),
+    role           enum ('ADMIN','DOCTOR','PATIENT') not null,
+    active         boolean      not null,
+    token_version  integer      not null,
+    created_at     timestamp(6) not null,
+    primary key (id),
+    constraint uk_users_email unique (email)
+);
+create index idx_users_role_active on users (role, active, id);
+
+create table doctor_profiles (
+    id                bigint generated by default as identity,
+    user_id           bigint        not null,
+    specialty         varchar(255)  not null,
+    bio               varchar,
+    experience_years  integer       not null,
+    consultation_fee  numeric(10,2),
+    working_days      varchar(255),
+    working_hours     varchar(255),
+    available         boolean       not null,
+    primary key (id),
+    constraint uk_doctor_profiles_user unique (user_id),
+    constraint fk_doctor_profiles_user foreign key (user_id) references users (id)
+);
+
+-- H2's TEXT is a CLOB, which does not validate against a String mapping; VARCHAR without a
+-- length holds as much and is what the TEXT columns become here.
+create table appointments (
+    id                bigint       not null,
+    patient_id        bigint       not null,
+    doctor_id         bigint       not null,
+    appointment_date  date         not null,
+    appointment_time  time         not null,
+    duration_minutes  integer      not null,
+    status            enum ('PENDING','CONFIRMED','COMPLETED','CANCELLED'),
+    active_slot       boolean,
+    patient_notes     varchar,
+    doctor_notes      varchar,
+    created_at        timestamp(6) not null,
+    updated_at        timestamp(6),
+    primary key (id),
+    constraint uk_appointments_active_slot unique (doctor_id, appointment_date, appointment_time, active_slot),
+    constraint fk_appointments_patient foreign key (patient_id) references users (id),
+    constraint fk_appointments_doctor foreign key (doctor_id) references users (id)
+);
+create index idx_appointments_created on appointments (created_at, id);
+create index idx_appointments_status_created on appointments (status, created_at, id);
+create index idx_appointments_doctor_created on appointments (doctor_id, created_at, id);
+create index idx_appointments_patient_created on appointments (patient_id, created_at, id);
+
+create table waitlist_entries (
+    id                       bigint generated by default as identity,
+    patient_id               bigint  not null,
+    doctor_id                bigint  not null,
+    preferred_date           date    not null,
+    window_start             time    not null,
+    window_end               time    not null,
+    duration_minutes         integer not null,
+    status                   enum ('WAITING','PROMOTED','CANCELLED') not null,
+    promoted_appointment_id  bigint,
+    created_at               timestamp(6) not null,
+    primary key (id),
+    constraint fk_waitlist_patient foreign key (patient_id) references users (id),
+    constraint fk_waitlist_doctor foreign key (doctor_id) references users (id)
+);
+create index idx_waitlist_doctor_date_status on waitlist_entries (doctor_id, preferred_date, status);
+create index idx_waitlist_patient on waitlist_entries (patient_id);
+
+create table notification_outbox (
+    id               bigint       not null,
+    appointment_id   bigint,
+    type             enum ('APPOINTMENT_BOOKED','APPOINTMENT_CONFIRMED','APPOINTMENT_CANCELLED') not null,
+    recipient        varchar(255) not null,
+    message          varchar      not null,
+    status           enum ('PENDING','SENT','COALESCED','FAILED') not null,
+    attempts         integer      not null,
+    next_attempt_at  timestamp(6) not null,
+    last_error       varchar(500),
+    created_at       timestamp(6) not null,
+    sent_at          timestamp(6),
+    primary key (id)
+);
+create index idx_outbox_status_next_attempt on notification_outbox (status, next_attempt_at);
+
+create table appointment_daily_rollups (
+    id             bigint       not null,
+    doctor_id      bigint       not null,
+    rollup_date    date         not null,
+    pending        bigint       not null,
+    confirmed      bigint       not null,
+    completed      bigint       not null,
+    cancelled      bigint       not null,
+    revenue_minor  bigint       not null,
+    updated_at     timestamp(6) not null,
+    primary key (id),
+    constraint uk_rollups_doctor_date unique (doctor_id, rollup_date)
+);
+create index idx_rollups_date on appointment_daily_rollups (rollup_date);
+
+create table token_revocations (
+    id           bigint      not null,
+    user_id      bigint      not null,
+    token_id     varchar(36),
+    min_version  integer,
+    expires_at   timestamp(6) with time zone not null,
+    primary key (id)
+);
+create index idx_token_revocations_expires on token_revocations (expires_at);
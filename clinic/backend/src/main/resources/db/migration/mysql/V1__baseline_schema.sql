@@ -0,0 +1,128 @@
+-- Schema as generated from the entity mappings before migrations took it over.
+-- Keep in step with h2/V1__baseline_schema.sql. A database created by ddl-auto can be adopted
+-- with spring.flyway.baseline-on-migrate=true, which marks this version applied.
+
+-- MySQL has no sequences; Hibernate emulates each with a single-row table
+create table user_seq (next_val bigint) engine=InnoDB;
+insert into user_seq values (1);
+create table appointment_seq (next_val bigint) engine=InnoDB;
+insert into appointment_seq values (1);
+create table outbox_seq (next_val bigint) engine=InnoDB;
+insert into outbox_seq values (1);
+create table rollup_seq (next_val bigint) engine=InnoDB;
+insert into rollup_seq values (1);
+create table revocation_seq (next_val bigint) engine=InnoDB;
+insert into revocation_seq values (1);
+
+create table users (
+    id             bigint       not null,
+    first_name     varchar(255) not null,
+    last_name      varchar(255) not null,
+    email          varchar(255) not null,
+    password       varchar(255) not null,
+    phone          varchar(255),
+    role           enum ('ADMIN','DOCTOR','PATIENT') not null,
+    active         bit          not null,
+    token_version  integer      not null,
+    created_at     datetime(6)  not null,
+    primary key (id),
+    constraint uk_users_email unique (email)
+) engine=InnoDB;
+create index idx_users_role_active on users (role, active, id);
+
+create table doctor_profiles (
+    id                bigint        not null auto_increment,
+    user_id           bigint        not null,
+    specialty         varchar(255)  not null,
+    bio               text,
+    experience_years  integer       not null,
+    consultation_fee  decimal(10,2),
+    working_days      varchar(255),
+    working_hours     varchar(255),
+    available         bit           not null,
+    primary key (id),
+    constraint uk_doctor_profiles_user unique (user_id),
+    constraint fk_doctor_profiles_user foreign key (user_id) references users (id)
+) engine=InnoDB;
+
+create table appointments (
+    id                bigint       not null,
+    patient_id        bigint       not null,
+    doctor_id         bigint       not null,
+    appointment_date  date         not null,
+    appointment_time  time         not null,
+    duration_minutes  integer      not null,
+    status            enum ('PENDING','CONFIRMED','COMPLETED','CANCELLED'),
+    active_slot       bit,
+    patient_notes     text,
+    doctor_notes      text,
+    created_at        datetime(6)  not null,
+    updated_at        datetime(6),
+    primary key (id),
+    constraint uk_appointments_active_slot unique (doctor_id, appointment_date, appointment_time, active_slot),
+    constraint fk_appointments_patient foreign key (patient_id) references users (id),
+    constraint fk_appointments_doctor foreign key (doctor_id) references users (id)
+) engine=InnoDB;
+create index idx_appointments_created on appointments (created_at, id);
+create index idx_appointments_status_created on appointments (status, created_at, id);
+create index idx_appointments_doctor_created on appointments (doctor_id, created_at, id);
+create index idx_appointments_patient_created on appointments (patient_id, created_at, id);
+
+create table waitlist_entries (
+    id                       bigint  not null auto_increment,
+    patient_id               bigint  not null,
+    doctor_id                bigint  not null,
+    preferred_date           date    not null,
+    window_start             time    not null,
+    window_end               time    not null,
+    duration_minutes         integer not null,
+    status                   enum ('WAITING','PROMOTED','CANCELLED') not null,
+    promoted_appointment_id  bigint,
+    created_at               datetime(6) not null,
+    primary key (id),
+    constraint fk_waitlist_patient foreign key (patient_id) references users (id),
+    constraint fk_waitlist_doctor foreign key (doctor_id) references users (id)
+) engine=InnoDB;
+create index idx_waitlist_doctor_date_status on waitlist_entries (doctor_id, preferred_date, status);
+create index idx_waitlist_patient on waitlist_entries (patient_id);
+
+create table notification_outbox (
+    id               bigint       not null,
+    appointment_id   bigint,
+    type             enum ('APPOINTMENT_BOOKED','APPOINTMENT_CONFIRMED','APPOINTMENT_CANCELLED') not null,
+    recipient        varchar(255) not null,
+    message          text         not null,
+    status           enum ('PENDING','SENT','COALESCED','FAILED') not null,
+    attempts         integer      not null,
+    next_attempt_at  datetime(6)  not null,
+    last_error       varchar(500),
+    created_at       datetime(6)  not null,
+    sent_at          datetime(6),
+    primary key (id)
+) engine=InnoDB;
+create index idx_outbox_status_next_attempt on notification_outbox (status, next_attempt_at);
+
+create table appointment_daily_rollups (
+    id             bigint      not null,
+    doctor_id      bigint      not null,
+    rollup_date    date        not null,
+    pending        bigint      not null,
+    confirmed      bigint      not null,
+    completed      bigint      not null,
+    cancelled      bigint      not null,
+    revenue_minor  bigint      not null,
+    updated_at     datetime(6) not null,
+    primary key (id),
+    constraint uk_rollups_doctor_date unique (doctor_id, rollup_date)
+) engine=InnoDB;
+create index idx_rollups_date on appointment_daily_rollups (rollup_date);
+
+create table token_revocations (
+    id           bigint       not null,
+    user_id      bigint       not null,
+    token_id     varchar(36),
+    min_version  integer,
+    expires_at   timestamp(6) not null,
+    primary key (id)
+) engine=InnoDB;
+create index idx_token_revocations_expires on token_revocations (expires_at);
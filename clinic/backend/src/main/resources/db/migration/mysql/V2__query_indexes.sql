@@ -0,0 +1,25 @@
+-- Indexes for the repository queries that had none beyond a foreign key. Each notes the
+-- queries it serves; anything reached through the leading columns of an existing key is left out:
+--   uk_appointments_active_slot (doctor_id, appointment_date, appointment_time, active_slot)
+--     findByDoctorIdAndAppointmentDate, findByDoctorIdInAndAppointmentDateBetween,
+--     existsByDoctorIdAndAppointmentDateAndAppointmentTimeAndStatusNot (one slot's rows),
+--     findResponsesByDoctorId (already in date, time order), findByDoctorIdAndStatus
+--   idx_appointments_status_created (status, created_at, id)
+--     countByStatus, countGroupByStatus (index only)
+--   idx_users_role_active (role, active, id)
+--     findByRole, countByRole, countGroupByRole (index only), admin user listing
+--   uk_users_email: findByEmail, existsByEmail
+--   uk_doctor_profiles_user: findByUserId, findResponseByUserId, findAllResponses (in user order)
+
+-- a patient's appointments, newest first: findResponsesByPatientId reads them in index order
+-- instead of sorting every row the patient ever booked
+create index idx_appointments_patient_date on appointments (patient_id, appointment_date, appointment_time);
+
+-- analytics: countByDoctorDateAndStatus is answered from the index alone over a date range,
+-- findAppointmentDateRange reads its two ends, and the admin listing's from/to filter uses it
+create index idx_appointments_date_doctor_status on appointments (appointment_date, doctor_id, status);
+
+-- available doctors in user order (findAvailableResponses, the admin doctor listing) without a
+-- sort; the specialty LIKE of findAvailableBySpecialtyWithUser is checked in the index before any
+-- row is read, since a leading wildcard cannot seek
+create index idx_doctor_profiles_available on doctor_profiles (available, user_id, specialty);
@@ -0,0 +1,95 @@
+package com.mostafa.clinic.migrations;
+
+import com.mostafa.clinic.ClinicApplication;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that both migration sets apply to an empty database and that the entity mappings
+ * validate against the result. The H2 set runs by booting the application on a fresh in-memory
+ * database, which migrates, validates ({@code ddl-auto: validate}) and seeds it. The MySQL set is
+ * checked the same way against {@code migrations.mysql.url} when given, which must point at an
+ * empty database; otherwise it is only applied to H2 in MySQL compatibility mode, which catches
+ * syntax and ordering mistakes but not type mismatches with the mappings.
+ *
+ * <pre>mvn -Pmigrations verify [-Dmigrations.mysql.url=jdbc:mysql://localhost:3306/clinic_check]</pre>
+ */
+public final class MigrationCheck {
+
+    private MigrationCheck() {
+    }
+
+    public static void main(String[] args) {
+        // the restart classloader would boot each application twice
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        List<String> failures = new ArrayList<>();
+
+        check("h2", failures, () -> boot(args,
+                "--spring.datasource.url=jdbc:h2:mem:migration_check;DB_CLOSE_DELAY=-1"));
+
+        String mysqlUrl = System.getProperty("migrations.mysql.url");
+        if (mysqlUrl != null) {
+            check("mysql", failures, () -> boot(args,
+                    "--spring.datasource.url=" + mysqlUrl,
+                    "--spring.datasource.username=" + System.getProperty("migrations.mysql.username", "root"),
+                    "--spring.datasource.password=" + System.getProperty("migrations.mysql.password", "")));
+        } else {
+            check("mysql (H2 in MySQL mode, syntax only)", failures, () -> {
+                MigrateResult result = Flyway.configure()
+                        .dataSource("jdbc:h2:mem:migration_check_mysql;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                                "sa", "")
+                        .locations("classpath:db/migration/mysql")
+                        .load()
+                        .migrate();
+                return result.migrationsExecuted + " migrations applied, now at version " + result.targetSchemaVersion;
+            });
+        }
+
+        if (!failures.isEmpty()) {
+            failures.forEach(f -> System.out.println("MIGRATION CHECK FAILED: " + f));
+            throw new IllegalStateException(failures.size() + " migration checks failed, see the output above");
+        }
+    }
+
+    private static String boot(String[] args, String... datasource) {
+        // command-line arguments, so they win over application.yml (builder properties would not)
+        List<String> arguments = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--management.server.port=-1",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.com.mostafa.clinic=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.springframework.web=WARN"));
+        arguments.addAll(List.of(datasource));
+        arguments.addAll(List.of(args));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ClinicApplication.class)
+                .run(arguments.toArray(String[]::new))) {
+            MigrationInfo[] applied = context.getBean(Flyway.class).info().applied();
+            return applied.length + " migrations applied, now at version "
+                    + applied[applied.length - 1].getVersion() + "; mappings validated";
+        }
+    }
+
+    private static void check(String name, List<String> failures, Step step) {
+        try {
+            System.out.println(name + ": " + step.run());
+        } catch (Exception e) {
+            Throwable cause = e;
+            while (cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            // the root cause names the statement or column; the top of a failed boot rarely does
+            failures.add(name + ": " + cause);
+        }
+    }
+
+    private interface Step {
+        String run() throws Exception;
+    }
+}
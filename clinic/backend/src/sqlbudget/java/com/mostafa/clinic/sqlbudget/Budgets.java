@@ -0,0 +1,152 @@
+package com.mostafa.clinic.sqlbudget;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+/**
+ * The statement budget of every endpoint: the most SQL statements one request may issue with all
+ * caches cold, whatever the size of the dataset. A budget that only holds for small datasets is
+ * an N+1 in waiting, so the suite also fails when a count grows with the data.
+ * <p>
+ * Not covered: {@code GET /api/admin/export/{dataset}} streams on an async thread in pages, a
+ * number of statements proportional to the data by design, and {@code POST /api/admin/analytics/backfill}
+ * repeats its query for as long as appointments in its range change underneath it.
+ */
+final class Budgets {
+
+    /**
+     * {@code check} runs after the request, uncounted, and returns why its outcome is wrong or null.
+     * {@code minStatements} is what a cold request cannot do without, such as a cache load; fewer
+     * means the recorder has lost sight of where those statements run.
+     */
+    record Budget(String endpoint, int maxStatements, Function<Dataset, MockHttpServletRequestBuilder> request,
+                  Function<Dataset, String> check, int minStatements) {
+
+        Budget(String endpoint, int maxStatements, Function<Dataset, MockHttpServletRequestBuilder> request,
+               Function<Dataset, String> check) {
+            this(endpoint, maxStatements, request, check, 0);
+        }
+
+        Budget(String endpoint, int maxStatements, Function<Dataset, MockHttpServletRequestBuilder> request) {
+            this(endpoint, maxStatements, request, d -> null);
+        }
+
+        Budget atLeast(int statements) {
+            return new Budget(endpoint, maxStatements, request, check, statements);
+        }
+    }
+
+    private Budgets() {
+    }
+
+    static List<Budget> all() {
+        return List.of(
+                // auth
+                new Budget("POST /api/auth/login", 2, d -> post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"patient@clinic.com\",\"password\":\"patient123\"}")),
+                new Budget("POST /api/auth/register", 2, d -> post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"firstName\":\"New\",\"lastName\":\"Patient\",\"email\":\"new.patient" + d.size()
+                                + "@example.com\",\"password\":\"secret123\",\"role\":\"PATIENT\"}")),
+                new Budget("POST /api/auth/logout", 2, d -> post("/api/auth/logout")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.tokenToLogOut))),
+
+                // doctors; the cold directory reads must show their cache load
+                new Budget("GET /api/doctors", 1, d -> get("/api/doctors")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))).atLeast(1),
+                new Budget("GET /api/doctors/available", 1, d -> get("/api/doctors/available")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))).atLeast(1),
+                new Budget("GET /api/doctors/search", 0, d -> get("/api/doctors/search")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))
+                        .param("q", "cardio").param("limit", "20")),
+                new Budget("GET /api/doctors/earliest", 2, d -> get("/api/doctors/earliest")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))
+                        .param("specialty", "Cardiology")),
+                new Budget("GET /api/doctors/{id}", 1, d -> get("/api/doctors/{id}", d.doctor.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))).atLeast(1),
+                new Budget("GET /api/doctors/{id}/slots", 2, d -> get("/api/doctors/{id}/slots", d.doctor.getId())
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))
+                        .param("from", d.bookingDate.toString())
+                        .param("to", d.bookingDate.plusDays(6).toString())),
+                new Budget("PUT /api/doctors/profile", 4, d -> put("/api/doctors/profile")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.doctorToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bio\":\"Updated at dataset size " + d.size() + "\"}")),
+
+                // appointments
+                new Budget("GET /api/appointments/my", 1, d -> get("/api/appointments/my")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))),
+                // a claimless token loads its principal (user, then its one-to-one profile) on the cache-load pool
+                new Budget("GET /api/appointments/my (token without claims)", 3, d -> get("/api/appointments/my")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientTokenWithoutClaims))).atLeast(2),
+                new Budget("POST /api/appointments/book", 8, d -> post("/api/appointments/book")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"doctorId\":" + d.doctor.getId() + ",\"appointmentDate\":\"" + d.bookingDate
+                                + "\",\"appointmentTime\":\"" + d.bookingTime + "\"}")),
+                new Budget("POST /api/appointments/book/recurring", 9, d -> post("/api/appointments/book/recurring")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"doctorId\":" + d.doctor.getId() + ",\"startDate\":\"" + d.recurringStart()
+                                + "\",\"appointmentTime\":\"10:00\",\"frequency\":\"WEEKLY\",\"occurrences\":4}")),
+                new Budget("PUT /api/appointments/confirm/{id}", 7, d -> put("/api/appointments/confirm/{id}", d.pendingToConfirm)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.doctorToken))),
+                new Budget("PUT /api/appointments/reject/{id}", 8, d -> put("/api/appointments/reject/{id}", d.pendingToReject)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.doctorToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"doctorNotes\":\"Not available\"}")),
+                new Budget("PUT /api/appointments/complete/{id}", 6, d -> put("/api/appointments/complete/{id}", d.confirmedToComplete)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.doctorToken))),
+                new Budget("PUT /api/appointments/cancel/{id}", 8, d -> put("/api/appointments/cancel/{id}", d.pendingToCancel)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))),
+                new Budget("PUT /api/appointments/cancel/{id} (waitlist promotion)", 14,
+                        d -> put("/api/appointments/cancel/{id}", d.pendingToCancelForWaiter)
+                                .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken)),
+                        Dataset::promotionProblem),
+
+                // waitlist
+                new Budget("GET /api/appointments/waitlist/my", 2, d -> get("/api/appointments/waitlist/my")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))),
+                new Budget("POST /api/appointments/waitlist", 6, d -> post("/api/appointments/waitlist")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"doctorId\":" + d.doctor.getId() + ",\"date\":\"" + d.waitlistDate
+                                + "\",\"windowStart\":\"09:00\",\"windowEnd\":\"12:00\"}")),
+                new Budget("DELETE /api/appointments/waitlist/{id}", 4, d -> delete("/api/appointments/waitlist/{id}", d.waitlistToLeave)
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.patientToken))),
+
+                // admin
+                new Budget("GET /api/admin/stats", 0, d -> get("/api/admin/stats")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.adminToken))),
+                new Budget("GET /api/admin/users", 1, d -> get("/api/admin/users")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.adminToken))),
+                new Budget("GET /api/admin/doctors", 1, d -> get("/api/admin/doctors")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.adminToken))),
+                new Budget("GET /api/admin/appointments", 1, d -> get("/api/admin/appointments")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.adminToken))),
+                new Budget("GET /api/admin/caches", 0, d -> get("/api/admin/caches")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.adminToken))),
+                new Budget("GET /api/admin/analytics", 0, d -> get("/api/admin/analytics")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(d.adminToken))
+                        .param("from", LocalDate.now().toString())
+                        .param("to", LocalDate.now().plusDays(30).toString())),
+                new Budget("PUT /api/admin/doctors/{id}/toggle-availability", 4,
+                        d -> put("/api/admin/doctors/{id}/toggle-availability", d.doctorToToggle)
+                                .header(HttpHeaders.AUTHORIZATION, bearer(d.adminToken))),
+                new Budget("PUT /api/admin/users/{id}/toggle-active", 5,
+                        d -> put("/api/admin/users/{id}/toggle-active", d.patientToToggle)
+                                .header(HttpHeaders.AUTHORIZATION, bearer(d.adminToken))));
+    }
+
+    private static String bearer(String token) {
+        return "Bearer " + token;
+    }
+}
@@ -0,0 +1,211 @@
+package com.mostafa.clinic.sqlbudget;
+
+import com.mostafa.clinic.entity.*;
+import com.mostafa.clinic.repository.AppointmentRepository;
+import com.mostafa.clinic.repository.DoctorProfileRepository;
+import com.mostafa.clinic.repository.UserRepository;
+import com.mostafa.clinic.repository.WaitlistEntryRepository;
+import com.mostafa.clinic.security.JwtService;
+import com.mostafa.clinic.service.DoctorSearchIndex;
+import org.springframework.context.ApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Map;
+
+/**
+ * The data the budgets run against. Starts from the accounts DataInitializer creates and grows by
+ * {@link #growTo(int)}: more doctors, more appointments and waitlist entries for the seeded patient
+ * and Dr. Ahmed. Each step also creates fresh rows for the write endpoints to act on, since
+ * confirming or cancelling consumes them. Rows are written straight through the repositories,
+ * bypassing the services, so the search index is rebuilt afterwards; the suite clears the caches
+ * before every request.
+ */
+final class Dataset {
+
+    /** Dr. Ahmed works Monday to Thursday, 09:00-17:00, in 30 minute slots. */
+    private static final int SLOTS_PER_DAY = 16;
+    private static final LocalTime FIRST_SLOT = LocalTime.of(9, 0);
+
+    private final UserRepository userRepository;
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final AppointmentRepository appointmentRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final DoctorSearchIndex doctorSearchIndex;
+    private final TransactionTemplate transactionTemplate;
+    private final JwtService jwtService;
+
+    final User patient;
+    final User doctor;
+    final User admin;
+    final String patientToken;
+    final String doctorToken;
+    final String adminToken;
+    // issued the way tokens were before they carried user id and role, so the principal is loaded
+    final String patientTokenWithoutClaims;
+
+    private int size;
+    private int nextSlot;
+    private int nextWaitlistDay;
+
+    // rows for the write endpoints, replaced on every growTo
+    Long pendingToConfirm;
+    Long pendingToReject;
+    Long confirmedToComplete;
+    Long pendingToCancel;
+    Long pendingToCancelForWaiter;
+    Long waiterEntry;
+    Long waitlistToLeave;
+    Long patientToToggle;
+    Long doctorToToggle;
+    String tokenToLogOut;
+    LocalDate bookingDate;
+    LocalTime bookingTime;
+    LocalDate waitlistDate;
+
+    Dataset(ApplicationContext context) {
+        this.userRepository = context.getBean(UserRepository.class);
+        this.doctorProfileRepository = context.getBean(DoctorProfileRepository.class);
+        this.appointmentRepository = context.getBean(AppointmentRepository.class);
+        this.waitlistEntryRepository = context.getBean(WaitlistEntryRepository.class);
+        this.doctorSearchIndex = context.getBean(DoctorSearchIndex.class);
+        this.transactionTemplate = context.getBean(TransactionTemplate.class);
+        this.jwtService = context.getBean(JwtService.class);
+
+        this.patient = userRepository.findByEmail("patient@clinic.com").orElseThrow();
+        this.doctor = userRepository.findByEmail("dr.ahmed@clinic.com").orElseThrow();
+        this.admin = userRepository.findByEmail("admin@clinic.com").orElseThrow();
+        this.patientToken = jwtService.generateToken(patient);
+        this.doctorToken = jwtService.generateToken(doctor);
+        this.adminToken = jwtService.generateToken(admin);
+        this.patientTokenWithoutClaims = jwtService.generateToken(Map.of(), patient);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** Adds rows until there are {@code target} extra doctors, appointments and waitlist entries. */
+    void growTo(int target) {
+        int from = size;
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = from; i < target; i++) {
+                User extra = userRepository.save(User.builder()
+                        .firstName("Budget").lastName("Doctor" + i)
+                        .email("budget.doctor" + i + "@example.com")
+                        .password("not-used")
+                        .role(Role.DOCTOR)
+                        .build());
+                doctorProfileRepository.save(DoctorProfile.builder()
+                        .user(extra)
+                        .specialty("Cardiology")
+                        .bio("Seeded for the SQL budget suite")
+                        .consultationFee(new BigDecimal("300.00"))
+                        .workingDays("MONDAY,TUESDAY,WEDNESDAY,THURSDAY,FRIDAY,SATURDAY,SUNDAY")
+                        .workingHours("09:00-17:00")
+                        .build());
+                appointment(i % 3 == 0 ? AppointmentStatus.CONFIRMED : AppointmentStatus.PENDING);
+                waitlistEntryRepository.save(WaitlistEntry.builder()
+                        .patient(patient).doctor(doctor)
+                        .preferredDate(LocalDate.now().plusDays(400 + nextWaitlistDay++))
+                        .windowStart(LocalTime.of(9, 0)).windowEnd(LocalTime.of(12, 0))
+                        .durationMinutes(Appointment.DEFAULT_DURATION_MINUTES)
+                        .build());
+            }
+
+            pendingToConfirm = appointment(AppointmentStatus.PENDING);
+            pendingToReject = appointment(AppointmentStatus.PENDING);
+            confirmedToComplete = appointment(AppointmentStatus.CONFIRMED);
+            pendingToCancel = appointment(AppointmentStatus.PENDING);
+            // a slot another patient is waiting for, so cancelling it promotes them
+            int waitedSlot = nextSlot;
+            pendingToCancelForWaiter = appointment(AppointmentStatus.PENDING);
+            User waiter = userRepository.save(User.builder()
+                    .firstName("Budget").lastName("Waiter" + target)
+                    .email("budget.waiter" + target + "@example.com")
+                    .password("not-used")
+                    .role(Role.PATIENT)
+                    .build());
+            waiterEntry = waitlistEntryRepository.save(WaitlistEntry.builder()
+                    .patient(waiter).doctor(doctor)
+                    .preferredDate(slotDate(waitedSlot))
+                    .windowStart(slotTime(waitedSlot))
+                    .windowEnd(slotTime(waitedSlot).plusMinutes(Appointment.DEFAULT_DURATION_MINUTES))
+                    .durationMinutes(Appointment.DEFAULT_DURATION_MINUTES)
+                    .build()).getId();
+            waitlistToLeave = waitlistEntryRepository.save(WaitlistEntry.builder()
+                    .patient(patient).doctor(doctor)
+                    .preferredDate(LocalDate.now().plusDays(400 + nextWaitlistDay++))
+                    .windowStart(LocalTime.of(13, 0)).windowEnd(LocalTime.of(16, 0))
+                    .durationMinutes(Appointment.DEFAULT_DURATION_MINUTES)
+                    .build()).getId();
+            patientToToggle = userRepository.save(User.builder()
+                    .firstName("Budget").lastName("Patient" + target)
+                    .email("budget.patient" + target + "@example.com")
+                    .password("not-used")
+                    .role(Role.PATIENT)
+                    .build()).getId();
+        });
+        doctorToToggle = userRepository.findByEmail("budget.doctor0@example.com").orElseThrow().getId();
+        tokenToLogOut = jwtService.generateToken(admin);
+
+        // one free slot to book and one free day to wait for; nothing else ever uses them
+        int bookingSlot = nextSlot++;
+        bookingDate = slotDate(bookingSlot);
+        bookingTime = slotTime(bookingSlot);
+        waitlistDate = slotDate(nextSlot);
+        nextSlot += SLOTS_PER_DAY;
+
+        size = target;
+        doctorSearchIndex.rebuild();
+    }
+
+    /** Null once the waiter of {@link #pendingToCancelForWaiter} holds the released slot. */
+    String promotionProblem() {
+        WaitlistEntry entry = waitlistEntryRepository.findById(waiterEntry).orElseThrow();
+        return entry.getStatus() == WaitlistStatus.PROMOTED ? null
+                : "waitlist entry " + entry.getId() + " is " + entry.getStatus() + ", expected PROMOTED";
+    }
+
+    /** Monday of a week far enough out that the regular slot sequence never reaches it. */
+    LocalDate recurringStart() {
+        LocalDate date = LocalDate.now().plusDays(200 + 35L * size);
+        while (date.getDayOfWeek() != DayOfWeek.MONDAY) {
+            date = date.plusDays(1);
+        }
+        return date;
+    }
+
+    private Long appointment(AppointmentStatus status) {
+        int slot = nextSlot++;
+        return appointmentRepository.save(Appointment.builder()
+                .patient(patient)
+                .doctor(doctor)
+                .appointmentDate(slotDate(slot))
+                .appointmentTime(slotTime(slot))
+                .status(status)
+                .patientNotes("Seeded for the SQL budget suite")
+                .build()).getId();
+    }
+
+    /** Slots fill Dr. Ahmed's working days in order, starting two weeks from today. */
+    private static LocalDate slotDate(int slot) {
+        LocalDate date = LocalDate.now().plusDays(14);
+        int days = slot / SLOTS_PER_DAY;
+        while (true) {
+            if (date.getDayOfWeek().getValue() <= DayOfWeek.THURSDAY.getValue()) {
+                if (days-- == 0) {
+                    return date;
+                }
+            }
+            date = date.plusDays(1);
+        }
+    }
+
+    private static LocalTime slotTime(int slot) {
+        return FIRST_SLOT.plusMinutes(30L * (slot % SLOTS_PER_DAY));
+    }
+}
@@ -0,0 +1,62 @@
+package com.mostafa.clinic.sqlbudget;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor whose tasks are recorded under the {@link StatementRecorder} recording of the thread
+ * that submitted them, so a cache load a request waits for counts toward that request.
+ */
+final class RecordingExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+
+    private RecordingExecutor(ExecutorService delegate) {
+        this.delegate = delegate;
+    }
+
+    /** Wraps the named executor beans as they are created. */
+    static BeanPostProcessor wrapping(List<String> beanNames) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return beanNames.contains(beanName) && bean instanceof ExecutorService executor
+                        ? new RecordingExecutor(executor) : bean;
+            }
+        };
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        delegate.execute(StatementRecorder.follow(command));
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
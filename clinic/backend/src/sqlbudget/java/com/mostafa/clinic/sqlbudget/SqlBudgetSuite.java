@@ -0,0 +1,181 @@
+package com.mostafa.clinic.sqlbudget;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.mostafa.clinic.ClinicApplication;
+import com.mostafa.clinic.service.CacheRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+
+/**
+ * Per-endpoint SQL statement budgets. Boots the application against in-memory H2 with
+ * {@link StatementRecorder} installed and the cache-load pool wrapped in {@link RecordingExecutor},
+ * grows a {@link Dataset} through increasing sizes and at each size sends one request to every
+ * endpoint in {@link Budgets} with all registered caches cleared, counting the statements it issues.
+ * Fails when an endpoint exceeds its budget or issues fewer statements than its cold minimum, issues
+ * more statements on the largest dataset than on the smallest, or fails its response or outcome
+ * check, printing the statements.
+ *
+ * <pre>mvn -Psqlbudget verify [-Dsqlbudget.scales=1,25,200] [-Dsqlbudget.record-only=true]</pre>
+ *
+ * With {@code record-only} the counts are reported without failing, for setting new budgets.
+ * The report is written to target/sql-budget-report.json.
+ */
+public final class SqlBudgetSuite {
+
+    private final MockMvc mockMvc;
+    private final CacheRegistry cacheRegistry;
+    private final Dataset dataset;
+    private final String asyncPrefix;
+
+    private SqlBudgetSuite(ConfigurableApplicationContext context) {
+        this.mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+                .apply(springSecurity())
+                .build();
+        this.cacheRegistry = context.getBean(CacheRegistry.class);
+        this.dataset = new Dataset(context);
+        this.asyncPrefix = context.getEnvironment().getProperty("spring.task.execution.thread-name-prefix", "task-");
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] scales = Arrays.stream(System.getProperty("sqlbudget.scales", "1,25,200").split(","))
+                .mapToInt(s -> Integer.parseInt(s.trim())).sorted().toArray();
+        boolean recordOnly = Boolean.getBoolean("sqlbudget.record-only");
+        String report = System.getProperty("sqlbudget.report", "target/sql-budget-report.json");
+
+        // the restart classloader would load a second copy of the inspector
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // command-line arguments, so they win over application.yml (builder properties would not)
+        String[] defaults = {
+                "--server.port=0",
+                "--management.server.port=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                        + StatementRecorder.class.getName(),
+                "--logging.level.com.mostafa.clinic=WARN",
+                "--logging.level.org.springframework.security=WARN",
+                "--logging.level.org.springframework.web=WARN"};
+        String[] all = Arrays.copyOf(defaults, defaults.length + args.length);
+        System.arraycopy(args, 0, all, defaults.length, args.length);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ClinicApplication.class)
+                // cache loads run on their own pool while the request waits; count them toward it
+                .initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(
+                        RecordingExecutor.wrapping(List.of("cacheLoadExecutor"))))
+                .run(all);
+        List<String> failures;
+        try {
+            SqlBudgetSuite suite = new SqlBudgetSuite(context);
+            failures = suite.run(scales, context.getBean(ObjectMapper.class), new File(report));
+        } finally {
+            context.close();
+        }
+        if (!failures.isEmpty() && !recordOnly) {
+            throw new IllegalStateException(failures.size() + " SQL statement budgets exceeded, see the report above");
+        }
+    }
+
+    private List<String> run(int[] scales, ObjectMapper objectMapper, File report) throws Exception {
+        List<Budgets.Budget> budgets = Budgets.all();
+        Map<String, List<Measurement>> measured = new LinkedHashMap<>();
+        for (int scale : scales) {
+            dataset.growTo(scale);
+            for (Budgets.Budget budget : budgets) {
+                measured.computeIfAbsent(budget.endpoint(), k -> new ArrayList<>()).add(measure(budget, scale));
+            }
+        }
+
+        System.out.printf("%n%-52s %7s", "endpoint", "budget");
+        for (int scale : scales) {
+            System.out.printf(" %8s", "n=" + scale);
+        }
+        System.out.println();
+        List<String> failures = new ArrayList<>();
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        for (Budgets.Budget budget : budgets) {
+            List<Measurement> runs = measured.get(budget.endpoint());
+            System.out.printf("%-52s %7d", budget.endpoint(), budget.maxStatements());
+            for (Measurement m : runs) {
+                System.out.printf(" %8s", m.status() / 100 != 2 ? m.count() + "!" + m.status()
+                        : m.problem() != null ? m.count() + "!" : m.count());
+            }
+            System.out.println();
+
+            for (Measurement m : runs) {
+                if (m.status() / 100 != 2) {
+                    failures.add(failure(budget, m, "returned HTTP " + m.status()));
+                } else if (m.problem() != null) {
+                    failures.add(failure(budget, m, m.problem()));
+                } else if (m.count() > budget.maxStatements()) {
+                    failures.add(failure(budget, m, m.count() + " statements, budget " + budget.maxStatements()));
+                } else if (m.count() < budget.minStatements()) {
+                    failures.add(failure(budget, m, m.count() + " statements, at least " + budget.minStatements()
+                            + " expected; a load ran where the recorder cannot see it"));
+                }
+            }
+            Measurement smallest = runs.get(0);
+            Measurement largest = runs.get(runs.size() - 1);
+            if (largest.count() > smallest.count()) {
+                failures.add(failure(budget, largest, "grew from " + smallest.count() + " statements at n="
+                        + smallest.scale() + " to " + largest.count()));
+            }
+
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("endpoint", budget.endpoint());
+            entry.put("budget", budget.maxStatements());
+            entry.put("runs", runs);
+            endpoints.add(entry);
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("finishedAt", Instant.now().toString());
+        json.put("scales", scales);
+        json.put("endpoints", endpoints);
+        json.put("failures", failures);
+        report.getAbsoluteFile().getParentFile().mkdirs();
+        objectMapper.copy().enable(SerializationFeature.INDENT_OUTPUT).writeValue(report, json);
+        System.out.println("report: " + report.getAbsolutePath());
+
+        failures.forEach(f -> System.out.println("BUDGET FAILED: " + f));
+        return failures;
+    }
+
+    private Measurement measure(Budgets.Budget budget, int scale) throws Exception {
+        cacheRegistry.caches().values().forEach(Cache::invalidateAll);
+        StatementRecorder.start(asyncPrefix);
+        MvcResult result;
+        List<String> statements;
+        try {
+            result = mockMvc.perform(budget.request().apply(dataset)).andReturn();
+        } finally {
+            statements = StatementRecorder.stop();
+        }
+        return new Measurement(scale, result.getResponse().getStatus(), statements.size(), statements,
+                budget.check().apply(dataset));
+    }
+
+    private static String failure(Budgets.Budget budget, Measurement m, String reason) {
+        StringBuilder sb = new StringBuilder(budget.endpoint()).append(" at n=").append(m.scale()).append(": ")
+                .append(reason);
+        for (String sql : m.statements()) {
+            sb.append(System.lineSeparator()).append("    ").append(sql);
+        }
+        return sb.toString();
+    }
+
+    record Measurement(int scale, int status, int count, List<String> statements, String problem) {}
+}
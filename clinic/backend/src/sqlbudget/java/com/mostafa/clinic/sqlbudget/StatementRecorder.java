@@ -0,0 +1,72 @@
+package com.mostafa.clinic.sqlbudget;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hibernate statement inspector that records every SQL statement prepared while a recording is
+ * open: on the thread that opened it, on the application task executor, and in any task that a
+ * recorded thread hands to an executor wrapped by {@link RecordingExecutor}. MockMvc runs the
+ * whole request (filters, controller, commit callbacks) on the calling thread, and the caches load
+ * on the wrapped cache-load pool while the request waits for them, so a recording covers what one
+ * request costs. Scheduled jobs (the notification dispatcher, the analytics flush) run on the
+ * scheduler's threads and are not part of any request's budget.
+ */
+public class StatementRecorder implements StatementInspector {
+
+    private static volatile Recording recording;
+    // the recording a task was handed over under, for the duration of that task
+    private static final ThreadLocal<Recording> lent = new ThreadLocal<>();
+
+    /** Starts recording statements from the current thread and from threads named {@code asyncPrefix*}. */
+    static void start(String asyncPrefix) {
+        recording = new Recording(Thread.currentThread(), asyncPrefix,
+                Collections.synchronizedList(new ArrayList<>()));
+    }
+
+    static List<String> stop() {
+        Recording r = recording;
+        recording = null;
+        if (r == null) {
+            return List.of();
+        }
+        synchronized (r.statements()) {
+            return List.copyOf(r.statements());
+        }
+    }
+
+    /** The task, made to record under the current recording if the submitting thread is recorded. */
+    static Runnable follow(Runnable task) {
+        Recording r = recording;
+        if (r == null || !r.covers(Thread.currentThread())) {
+            return task;
+        }
+        return () -> {
+            Recording previous = lent.get();
+            lent.set(r);
+            try {
+                task.run();
+            } finally {
+                lent.set(previous);
+            }
+        };
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Recording r = recording;
+        if (r != null && r.covers(Thread.currentThread())) {
+            r.statements().add(sql);
+        }
+        return sql;
+    }
+
+    private record Recording(Thread owner, String asyncPrefix, List<String> statements) {
+        boolean covers(Thread thread) {
+            return thread == owner || thread.getName().startsWith(asyncPrefix) || lent.get() == this;
+        }
+    }
+}
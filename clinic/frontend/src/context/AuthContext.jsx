@@ -29,6 +29,10 @@ export function AuthProvider({ children }) {
   }
 
   const logout = () => {
+    // revoke server-side too; the local session is cleared whether or not this succeeds
+    if (token) {
+      api.post('/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } }).catch(() => {})
+    }
     setToken(null)
     setUser(null)
     localStorage.removeItem('token')
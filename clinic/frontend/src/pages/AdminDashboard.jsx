@@ -12,6 +12,7 @@ export default function AdminDashboard() {
   const [doctors, setDoctors] = useState([])
   const [appointments, setAppointments] = useState([])
   const [users, setUsers] = useState([])
+  const [cursors, setCursors] = useState({})
   const [loading, setLoading] = useState(true)
 
   useEffect(() => { loadData() }, [])
@@ -25,11 +26,24 @@ export default function AdminDashboard() {
         api.get('/admin/appointments'),
         api.get('/admin/users'),
       ])
-      setStats(s.data); setDoctors(d.data); setAppointments(a.data); setUsers(u.data)
+      setStats(s.data); setDoctors(d.data.items); setAppointments(a.data.items); setUsers(u.data.items)
+      setCursors({ doctors: d.data.nextCursor, appointments: a.data.nextCursor, users: u.data.nextCursor })
     } catch {}
     setLoading(false)
   }
 
+  const loadMore = async (list, setList) => {
+    const res = await api.get(`/admin/${list}`, { params: { cursor: cursors[list] } })
+    setList(prev => [...prev, ...res.data.items])
+    setCursors(prev => ({ ...prev, [list]: res.data.nextCursor }))
+  }
+
+  const LoadMore = ({ list, setList }) => cursors[list] ? (
+    <div style={{ padding: '1rem', textAlign: 'center' }}>
+      <button className="btn btn-sm" onClick={() => loadMore(list, setList)}>Load more</button>
+    </div>
+  ) : null
+
   const toggleDoctor = async (doctorId) => {
     await api.put(`/admin/doctors/${doctorId}/toggle-availability`)
     loadData()
@@ -75,7 +89,7 @@ export default function AdminDashboard() {
           </div>
         ) : tab === 'doctors' ? (
           <div className="card">
-            <div className="card-header">All Doctors ({doctors.length})</div>
+            <div className="card-header">All Doctors ({doctors.length}{cursors.doctors ? '+' : ''})</div>
             <div className="card-body" style={{ padding: 0 }}>
               <table className="table">
                 <thead><tr>
@@ -100,11 +114,12 @@ export default function AdminDashboard() {
                   ))}
                 </tbody>
               </table>
+              <LoadMore list="doctors" setList={setDoctors} />
             </div>
           </div>
         ) : tab === 'appointments' ? (
           <div className="card">
-            <div className="card-header">All Appointments ({appointments.length})</div>
+            <div className="card-header">All Appointments ({appointments.length}{cursors.appointments ? '+' : ''})</div>
             <div className="card-body" style={{ padding: 0 }}>
               <table className="table">
                 <thead><tr>
@@ -121,11 +136,12 @@ export default function AdminDashboard() {
                   ))}
                 </tbody>
               </table>
+              <LoadMore list="appointments" setList={setAppointments} />
             </div>
           </div>
         ) : (
           <div className="card">
-            <div className="card-header">All Users ({users.length})</div>
+            <div className="card-header">All Users ({users.length}{cursors.users ? '+' : ''})</div>
             <div className="card-body" style={{ padding: 0 }}>
               <table className="table">
                 <thead><tr>
@@ -150,6 +166,7 @@ export default function AdminDashboard() {
                   ))}
                 </tbody>
               </table>
+              <LoadMore list="users" setList={setUsers} />
             </div>
           </div>
         )}